@@ -0,0 +1,122 @@
+package benchmarks;
+
+import java.awt.Point;
+import java.util.Arrays;
+
+import game.Board;
+import game.DestinysWild;
+import game.Player;
+import game.Room;
+import game.Tile;
+import game.XMLParser;
+import renderer.OffscreenRenderer;
+
+/**
+ * Measures how long it takes to draw a frame, without opening a window.
+ * Every combination of view direction, time of day and number of players
+ * in the room is drawn a number of times, and the time per frame is printed.
+ *
+ * Run from the project folder, so that data/ can be found:
+ *   java -cp bin benchmarks.RenderBenchmark [warmupFrames] [measuredFrames]
+ */
+public class RenderBenchmark {
+
+	private static final String[] VIEW_DIRS = {"north", "east", "south", "west"};
+	private static final String[] STATES = {"day", "dusk", "night", "dawn"};
+	private static final int[] STATE_TIMES = {10, 50, 63, 10}; //A time inside each state
+	private static final boolean[] STATE_RISING = {true, true, false, false};
+	private static final int[] PLAYER_COUNTS = {1, 4, 8};
+
+	/**
+	 * Runs the benchmark
+	 * @param args optional number of warm up frames and measured frames
+	 */
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		int warmup = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+		int frames = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+		System.out.println(String.format("%-6s %-6s %7s %10s %10s %10s",
+				"view", "state", "players", "mean ms", "p50 ms", "p95 ms"));
+		for (int players : PLAYER_COUNTS) {
+			OffscreenRenderer renderer = createScene(players);
+			for (int s = 0; s < STATES.length; s++) {
+				for (String viewDir : VIEW_DIRS) {
+					long[] times = run(renderer, viewDir, s, warmup, frames);
+					System.out.println(String.format("%-6s %-6s %7d %10.3f %10.3f %10.3f",
+							viewDir, STATES[s], players, mean(times), percentile(times, 50), percentile(times, 95)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads the board and puts the given number of players in the starting room.
+	 * Every second player carries a torch.
+	 */
+	private static OffscreenRenderer createScene(int numPlayers){
+		Board board = XMLParser.initialiseBoard("data/board.xml");
+		DestinysWild.setBoard(board);
+		Room room = board.getRoomFromCoords(2, 2);
+
+		Player user = null;
+		int placed = 0;
+		for (int row = 2; row < 10 && placed < numPlayers; row++) {
+			for (int col = 2; col < 10 && placed < numPlayers; col++) {
+				if (room.getObstacles()[row][col] != null) {
+					continue;
+				}
+				Tile tile = room.getTiles()[row][col];
+				Point coords = tile.getRealCoords();
+				Player player = new Player("Player" + placed, new Point(coords.x, coords.y), room);
+				player.setCurrentTile(tile);
+				player.setHasTorch(placed % 2 == 1);
+				board.addPlayers(player);
+				if (user == null) {
+					user = player;
+				}
+				placed++;
+			}
+		}
+		//the user has seen every room, so both neighbouring rooms are drawn
+		for (int row = 0; row < 5; row++) {
+			for (int col = 0; col < 5; col++) {
+				user.addRoom(board.getRoomFromCoords(row, col));
+			}
+		}
+		DestinysWild.setPlayer(user);
+		return new OffscreenRenderer(board, user);
+	}
+
+	/**
+	 * Draws warm up frames, then times each measured frame
+	 * @return the time of each measured frame in nanoseconds
+	 */
+	private static long[] run(OffscreenRenderer renderer, String viewDir, int state, int warmup, int frames){
+		for (int i = 0; i < warmup; i++) {
+			renderer.render(viewDir, STATE_TIMES[state], STATE_RISING[state]);
+		}
+		long[] times = new long[frames];
+		for (int i = 0; i < frames; i++) {
+			long start = System.nanoTime();
+			renderer.render(viewDir, STATE_TIMES[state], STATE_RISING[state]);
+			times[i] = System.nanoTime() - start;
+		}
+		return times;
+	}
+
+	private static double mean(long[] times){
+		long total = 0;
+		for (long time : times) {
+			total += time;
+		}
+		return total / (double) times.length / 1000000.0;
+	}
+
+	private static double percentile(long[] times, double percentile){
+		long[] sorted = Arrays.copyOf(times, times.length);
+		Arrays.sort(sorted);
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, rank)] / 1000000.0;
+	}
+}
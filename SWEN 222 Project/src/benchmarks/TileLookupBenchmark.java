@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.awt.Point;
+import java.util.Random;
+
+import game.Board;
+import game.Room;
+import game.Tile;
+import game.XMLParser;
+
+/**
+ * Measures how long it takes to find the tile under a point, comparing
+ * Room.calcTile with checking every tile of the room in turn.
+ * The points are spread over the room and a little way around it,
+ * so some of them are not on any tile.
+ *
+ * Run from the project folder, so that data/ can be found:
+ *   java -cp bin benchmarks.TileLookupBenchmark [rounds] [points]
+ */
+public class TileLookupBenchmark {
+
+	/**
+	 * Runs the benchmark
+	 * @param args optional number of rounds and points per round
+	 */
+	public static void main(String[] args) {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int numPoints = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+
+		Board board = XMLParser.initialiseBoard("data/board.xml");
+		Room room = board.getRoomFromCoords(2, 2);
+		Point[] points = createPoints(numPoints);
+
+		System.out.println(String.format("%-6s %14s %14s", "round", "scan ns/call", "calcTile ns/call"));
+		int found = 0; //kept so that the lookups can't be optimised away
+		for (int round = 0; round < rounds; round++) {
+			long start = System.nanoTime();
+			for (Point point : points) {
+				if (scanTiles(room, point) != null) {
+					found++;
+				}
+			}
+			long scan = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (Point point : points) {
+				if (room.calcTile(point) != null) {
+					found++;
+				}
+			}
+			long calc = System.nanoTime() - start;
+			System.out.println(String.format("%-6d %14.1f %14.1f", round,
+					scan / (double) numPoints, calc / (double) numPoints));
+		}
+		System.out.println(found + " lookups found a tile");
+	}
+
+	/**
+	 * Creates random points over the room and the space around it
+	 */
+	private static Point[] createPoints(int numPoints){
+		Random random = new Random(42);
+		Point[] points = new Point[numPoints];
+		for (int i = 0; i < numPoints; i++) {
+			points[i] = new Point(150 + random.nextInt(750), 150 + random.nextInt(370));
+		}
+		return points;
+	}
+
+	/**
+	 * Finds the tile under a point by checking every tile, which is how
+	 * Room.calcTile used to work
+	 */
+	private static Tile scanTiles(Room room, Point point){
+		Tile[][] tiles = room.getTiles();
+		for (int row = 0; row < tiles.length; ++row) {
+			for (int col = 0; col < tiles[0].length; ++col) {
+				Tile current = tiles[row][col];
+				if (current != null && current.isOn(point)){
+					return current;
+				}
+			}
+		}
+		return null;
+	}
+}
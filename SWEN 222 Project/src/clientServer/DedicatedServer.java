@@ -0,0 +1,118 @@
+package clientServer;
+
+import game.Board;
+import game.DestinysWild;
+import game.TickScheduler;
+import game.WorldClock;
+import game.XMLParser;
+
+import clientServer.packets.TimePacket;
+
+/**
+ * The DedicatedServer runs a game that no player is hosting, so that it can be
+ * left running on a machine without a screen. Players join it from the menu
+ * the same way they would join a player's server.
+ *
+ * -The board is loaded from the XML file, and no images are loaded
+ * -The server keeps the time of day, and sends it to the players once a second
+ * -The enemies in every room that a player is in are moved by a ServerSimulation
+ * -Every REPORT_SECONDS, any ticks of the simulation that took too long are logged
+ *
+ * Run from the project folder, so that data/ can be found:
+ *   java -cp bin:Libraries/* clientServer.DedicatedServer [board file]
+ */
+public class DedicatedServer {
+
+	public static final int CLOCK_TICKS = 1; //Changes to the time of day a second
+	public static final int REPORT_SECONDS = 10; //Time between checks for slow simulation ticks
+
+	private final WorldClock clock;
+	private final GameServer server;
+	private final ServerSimulation simulation;
+	private TickScheduler.Ticker clockTicker;
+	private TickScheduler.Ticker reportTicker;
+	private long reportedOverruns = 0;
+
+	/**
+	 * Creates the server for a board. It still needs to be started.
+	 * @param board the board to run the game on
+	 */
+	public DedicatedServer(Board board) {
+		this.clock = new WorldClock(null);
+		this.server = new GameServer(board, clock, null);
+		this.simulation = new ServerSimulation(board, server);
+	}
+
+	/**
+	 * Starts listening for players, and starts the clock and the simulation
+	 * on the shared TickScheduler
+	 */
+	public void start() {
+		server.start();
+		clockTicker = TickScheduler.getShared().schedule("world clock", CLOCK_TICKS, new Runnable() {
+			public void run() {
+				clock.advance();
+				new TimePacket(clock.getTime()).writeData(server);
+			}
+		});
+		simulation.start();
+		reportTicker = TickScheduler.getShared().schedule("report", 1.0 / REPORT_SECONDS, new Runnable() {
+			public void run() {
+				reportOverruns();
+			}
+		});
+	}
+
+	/**
+	 * Logs the simulation's measurements if any of its ticks have taken
+	 * longer than a tick should since the last report
+	 */
+	private void reportOverruns() {
+		TickScheduler.Ticker ticker = simulation.getTicker();
+		if (ticker != null && ticker.getOverruns() > reportedOverruns) {
+			reportedOverruns = ticker.getOverruns();
+			System.out.println("Simulation is falling behind: " + ticker);
+		}
+	}
+
+	/**
+	 * Stops the clock and the simulation. Players can still send packets
+	 * to the server until the program exits.
+	 */
+	public void stop() {
+		if (clockTicker != null) {
+			clockTicker.cancel();
+		}
+		if (reportTicker != null) {
+			reportTicker.cancel();
+		}
+		simulation.stop();
+	}
+
+	public GameServer getServer() {
+		return server;
+	}
+
+	public WorldClock getClock() {
+		return clock;
+	}
+
+	public ServerSimulation getSimulation() {
+		return simulation;
+	}
+
+	/**
+	 * Starts a dedicated server
+	 * @param args optionally the board file to load, data/board.xml by default
+	 */
+	public static void main(String[] args) {
+		//there is no screen, so make sure nothing tries to use one
+		System.setProperty("java.awt.headless", "true");
+		String boardFile = args.length > 0 ? args[0] : "data/board.xml";
+		Board board = XMLParser.initialiseBoard(boardFile);
+		DestinysWild.setBoard(board);
+		DedicatedServer dedicated = new DedicatedServer(board);
+		dedicated.start();
+		System.out.println("Dedicated server running on port " + GameServer.PORT);
+	}
+}
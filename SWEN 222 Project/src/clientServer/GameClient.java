@@ -32,6 +32,7 @@ import clientServer.packets.TimePacket;
 import clientServer.packets.TorchPacket;
 import clientServer.packets.Packet.PacketTypes;
 import clientServer.packets.RemoveItemPacket;
+import renderer.GameImagePanel;
 
 public class GameClient extends Thread {
 
@@ -74,8 +75,11 @@ public class GameClient extends Thread {
 				e.printStackTrace();
 			}
 			if (packet != null) {
-				this.parsePacket(packet.getData(), packet.getAddress(),
-						packet.getPort());
+				//a host's board is also being simulated by its server
+				synchronized (board) {
+					this.parsePacket(packet.getData(), packet.getAddress(),
+							packet.getPort());
+				}
 			}
 		}
 	}
@@ -144,39 +148,68 @@ public class GameClient extends Thread {
 	 * @param packet
 	 */
 	public void handleHealthPacket(HealthPacket packet) {
+		if (multiplayer.getServer() != null) {
+			return; //a host shares its players with its server, which has already hurt them
+		}
 		Player player = board.getPlayer(packet.getUserName());
-		player.setHealth(packet.getHealth());
-
+		if (player == null) {
+			return;
+		}
+		if (player == multiplayer.getCurrentPlayer()) {
+			player.takeServerHit(packet.getHealth(), packet.getHit());
+		} else {
+			player.setHealth(packet.getHealth());
+		}
 	}
 
 	/**
 	 * This method takes an EnemyPacket, finds the relevant NPC by using the ID
 	 * in the packet and adjusts their health and co-ordinates to those in the
-	 * packet.
+	 * packet. The server moves the enemies, so this is where a client's enemies
+	 * move. An enemy sent with no health left has been killed, and is removed.
+	 * A host shares its board with its server, so it has nothing to do.
 	 * 
 	 * @param packet
 	 */
 	public void handleEnemyPacket(EnemyPacket packet) {
-//		Room room = board.getRoomFromId(packet.getCurrentRoomID());
-//		for (NPC npc : room.getNpcs()) {
-//			if (npc.getId() == packet.getID() && npc instanceof EnemyWalker) {
-//				Point point = new Point(packet.getRealCoordsX(),
-//						packet.getRealCoordsY());
-//				npc.setRealCoords(point);
-//				Point roomPoint = new Point(packet.getRoomCoordsX(),packet.getRoomCoordsY());
-//				npc.setHealth(packet.getHealth());
-//				npc.setCurrentTile(room.calcTile(point));
-//			}
-//		}
+		if (multiplayer.getServer() != null) {
+			return;
+		}
+		Room room = board.getRoomFromId(packet.getCurrentRoomID());
+		NPC npc = room == null ? null : room.getNpcFromId(packet.getID());
+		if (npc != null && packet.getHealth() <= 0) {
+			room.removeNpcs(npc);
+		} else if (npc instanceof EnemyWalker) {
+			Point point = new Point(packet.getRealCoordsX(),
+					packet.getRealCoordsY());
+			npc.setRealCoords(point);
+			Point roomPoint = new Point(packet.getRoomCoordsX(),
+					packet.getRoomCoordsY());
+			npc.setRoomCoords(roomPoint);
+			npc.setHealth(packet.getHealth());
+			((EnemyWalker) npc).setDir(packet.getDir());
+			((EnemyWalker) npc).setAnimationState(packet.getAnimationState());
+			npc.setCurrentTile(room.calcTile(point));
+			room.moveNpc(npc, npc.getCurrentTile());
+		}
 	}
 
 	/**
 	 * This method takes a TimePacket and obtains the time from it and sets the
-	 * current time to it
+	 * current time to it. The server keeps the time of day, so a player who
+	 * joined it shows the time it sends. A host keeps the time itself.
 	 * 
 	 * @param packet
 	 */
 	public void handleTimePacket(TimePacket packet) {
+		if (multiplayer.getServer() != null || DestinysWild.getGameInterface() == null) {
+			return;
+		}
+		GameImagePanel panel = DestinysWild.getGameInterface().getGameImagePanel();
+		int time = packet.getNewTime();
+		//the packet only has the time, so whether it is rising is worked out from the last one
+		boolean rising = time == panel.getTime() ? panel.isTimeRising() : time > panel.getTime();
+		panel.setTimeOfDay(time, rising);
 	}
 
 	/**
@@ -206,12 +239,17 @@ public class GameClient extends Thread {
 	 * This method takes a MovePacket and obtains the Player, their health and X
 	 * and Y positions. It then sets their room, co-ordinates and what
 	 * direction(s) they are moving in. Once it has done this, it updates the
-	 * player and sets their current tile.	
+	 * player and sets their current tile. The server sends a player's own
+	 * MovePackets back to them, and those are ignored, because the player
+	 * may have been hurt or moved since sending it.
 	 * 
 	 * @param packet
 	 */
 	public void handleMovePacket(MovePacket packet) {
 		Player player = board.getPlayer(packet.getUserName());
+		if (player == multiplayer.getCurrentPlayer()) {
+			return;
+		}
 		player.setHealth(packet.getHealth());
 		int playerX = packet.getX();
 		int playerY = packet.getY();
@@ -263,7 +301,7 @@ public class GameClient extends Thread {
 	 */
 	public void sendData(byte[] data) {
 		DatagramPacket packet = new DatagramPacket(data, data.length,
-				ipAddress, 9772);
+				ipAddress, GameServer.PORT);
 		try {
 			this.socket.send(packet);
 		} catch (IOException e) {
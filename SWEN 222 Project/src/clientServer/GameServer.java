@@ -1,11 +1,10 @@
 package clientServer;
 
 import game.Board;
-import game.DestinysWild;
 import game.Player;
 import game.Room;
+import game.WorldClock;
 import game.items.Item;
-import game.npcs.EnemyWalker;
 import game.npcs.NPC;
 
 import java.awt.Point;
@@ -21,9 +20,13 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import clientServer.packets.AttackPacket;
 import clientServer.packets.DisconnectPacket;
 import clientServer.packets.EnemyPacket;
 import clientServer.packets.HealthPacket;
@@ -36,24 +39,53 @@ import clientServer.packets.TimePacket;
 import clientServer.packets.TorchPacket;
 
 public class GameServer extends Thread {
+	public static final int PORT = 9772; //Port the server listens on
+	private static final int HEALTH_RESENDS = 30; //Ticks a health set by the server is sent again for
+
 	private DatagramSocket socket;
 	private Board board;
-	private List<Player> connectedPlayers = new ArrayList<Player>();
-	private Multiplayer multiplayer;
+	private List<Player> connectedPlayers = new CopyOnWriteArrayList<Player>(); //also read by the simulation
+	private Map<String, Player> connectedByName = new HashMap<String, Player>(); //first connected player with each name
+	private Player host;
+	private WorldClock clock;
+	//health the server gave players, which their clients haven't said they have taken yet
+	private Map<Player, ServerHealth> healthFromServer = new HashMap<Player, ServerHealth>();
+	private Map<Player, Integer> serverHits = new HashMap<Player, Integer>(); //number of the last hit on each player
+	private Map<NPC, Integer> enemyDeaths = new HashMap<NPC, Integer>(); //killed enemies, and ticks left to send them for
+
+	/**
+	 * A health the server has given a player, the number of the hit that
+	 * gave it, and how many more ticks it is sent for
+	 */
+	private static class ServerHealth {
+		private final int health;
+		private final int hit;
+		private int resends = HEALTH_RESENDS;
+
+		private ServerHealth(int health, int hit) {
+			this.health = health;
+			this.hit = hit;
+		}
+	}
 
 	/**
-	 * Constructor for a GameServer which takes in a Board and a Multiplayer
-	 * object
+	 * Constructor for a GameServer which takes in a Board, the clock that
+	 * keeps the time of day, and the player hosting the game. A server
+	 * without a host is a dedicated server, which keeps its own time.
 	 *
 	 * @param board
-	 * @param multiplayer
+	 * @param clock
+	 * @param host the player whose game runs the server, or null for a dedicated server
 	 */
-	public GameServer(Board board, Multiplayer multiplayer) {
+	public GameServer(Board board, WorldClock clock, Player host) {
 		this.board = board;
-		this.multiplayer = multiplayer;
-		this.connectedPlayers.add(multiplayer.getCurrentPlayer());
+		this.clock = clock;
+		this.host = host;
+		if (host != null) {
+			addConnectedPlayer(host);
+		}
 		try {
-			this.socket = new DatagramSocket(9772);
+			this.socket = new DatagramSocket(PORT);
 			System.out.println(InetAddress.getLocalHost().getHostAddress());
 		} catch (SocketException e) {
 			e.printStackTrace();
@@ -72,8 +104,11 @@ public class GameServer extends Thread {
 				} catch (IOException e) {
 					e.printStackTrace();
 				}
-				this.parsePacket(packet.getData(), packet.getAddress(),
-						packet.getPort());
+				//a dedicated server's simulation only sees whole updates
+				synchronized (board) {
+					this.parsePacket(packet.getData(), packet.getAddress(),
+							packet.getPort());
+				}
 			}
 		} catch (NullPointerException e) {
 
@@ -133,8 +168,11 @@ public class GameServer extends Thread {
 			this.handleTorchPacket((TorchPacket) packet);
 			break;
 		case ENEMY:
-			packet = new EnemyPacket(data);
-			this.handleEnemyPacket((EnemyPacket) packet);
+			//the server moves the enemies, so clients are not listened to
+			break;
+		case ATTACK:
+			packet = new AttackPacket(data);
+			this.handleAttackPacket((AttackPacket) packet);
 			break;
 		case HEALTH:
 			packet = new HealthPacket(data);
@@ -145,35 +183,38 @@ public class GameServer extends Thread {
 
 	/**
 	 * This method takes a HealthPacket, obtains the relevant Player and sets
-	 * their health to the value in the packet
+	 * their health to the value in the packet. The host's player is the same
+	 * Player the server has, so the health its packets had when they were
+	 * sent is never taken.
 	 *
 	 * @param packet
 	 */
 	public void handleHealthPacket(HealthPacket packet) {
 		Player player = this.getPlayer(packet.getUserName());
-		player.setHealth(packet.getHealth());
+		if (player == null || player == host) {
+			return;
+		}
+		takenServerHit(player, packet.getHit());
+		if (acceptClientHealth(player)) {
+			player.setHealth(packet.getHealth());
+		}
 	}
 
 	/**
-	 * This method takes an EnemyPacket, finds the relevant NPC by using the ID
-	 * in the packet and adjusts their health and co-ordinates to those in the
-	 * packet.
+	 * This method takes an AttackPacket, finds the enemy a player attacked
+	 * and does the damage to it. If it died, every player is told.
 	 *
 	 * @param packet
 	 */
-	public void handleEnemyPacket(EnemyPacket packet) {
-		Room room = board.getRoomFromId(packet.getCurrentRoomID());
-		for (NPC npc : room.getNpcs()) {
-			if (npc instanceof EnemyWalker && npc.getId() == packet.getID()) {
-				Point point = new Point(packet.getRealCoordsX(),
-						packet.getRealCoordsY());
-				npc.setRealCoords(point);
-				Point roomPoint = new Point(packet.getRoomCoordsX(),
-						packet.getRoomCoordsY());
-				npc.setRoomCoords(roomPoint);
-				npc.setHealth(packet.getHealth());
-				npc.setCurrentTile(room.calcTile(point));
-			}
+	public void handleAttackPacket(AttackPacket packet) {
+		Room room = board.getRoomFromId(packet.getRoomID());
+		NPC enemy = room == null ? null : room.getNpcFromId(packet.getNpcID());
+		if (enemy == null) {
+			return; //it has already been killed
+		}
+		enemy.takeDamage(packet.getDamage());
+		if (enemy.getHealth() <= 0) {
+			sendEnemyDeath(enemy);
 		}
 	}
 
@@ -191,18 +232,17 @@ public class GameServer extends Thread {
 
 	/**
 	 * This method takes a TimePacket and obtains the time from it and sets the
-	 * current time to it
+	 * current time to it. A dedicated server keeps its own time, so it ignores
+	 * the times clients send it.
 	 *
 	 * @param packet
 	 */
 	public void handleTimePacket(TimePacket packet) {
 		// System.out.println(packet.getNewTime());
-		if (packet.getNewTime() > 63) {
-			DestinysWild.getGameInterface().getGameImagePanel().setTime(63);
-		} else {
-			DestinysWild.getGameInterface().getGameImagePanel()
-					.setTime(packet.getNewTime());
+		if (isDedicated()) {
+			return;
 		}
+		clock.setTime(packet.getNewTime());
 		packet.writeData(this);
 	}
 
@@ -226,7 +266,9 @@ public class GameServer extends Thread {
 	 * This method takes a MovePacket and obtains the Player, their health and X
 	 * and Y positions. It then sets their room, co-ordinates and what
 	 * direction(s) they are moving in. Once it has done this, it updates the
-	 * player and sets their current tile.
+	 * player and sets their current tile. The host's player is the same Player
+	 * the server has, and may have been hit or moved since the packet was
+	 * sent, so the host's packets are only passed on to the other players.
 	 *
 	 * @param packet
 	 */
@@ -235,7 +277,13 @@ public class GameServer extends Thread {
 			if (packet.getUserName() != null) {
 				// int index = getPlayerIndex(packet.getUserName());
 				Player player = this.getPlayer(packet.getUserName());
-				player.setHealth(packet.getHealth());
+				if (player == host) {
+					packet.writeData(this);
+					return;
+				}
+				if (acceptClientHealth(player)) {
+					player.setHealth(packet.getHealth());
+				}
 				int playerX = packet.getX();
 				int playerY = packet.getY();
 				player.setCoords(playerX, playerY);
@@ -268,8 +316,10 @@ public class GameServer extends Thread {
 	 */
 	public void removeConnection(DisconnectPacket packet) {
 		Player player = getPlayer(packet.getUserName());
-		this.connectedPlayers.remove(player);
-		board.getPlayers().remove(player);
+		removeConnectedPlayer(player);
+		healthFromServer.remove(player);
+		serverHits.remove(player);
+		board.removePlayers(player);
 		packet.writeData(this);
 
 	}
@@ -299,12 +349,40 @@ public class GameServer extends Thread {
 	 * @return
 	 */
 	public Player getPlayer(String name) {
+		return connectedByName.get(name);
+	}
+
+	/**
+	 * Adds a player to the list of connectedPlayers, and to the names
+	 * that getPlayer looks players up by
+	 *
+	 * @param player
+	 */
+	private void addConnectedPlayer(Player player) {
+		this.connectedPlayers.add(player);
+		if (!connectedByName.containsKey(player.getName())) {
+			connectedByName.put(player.getName(), player);
+		}
+	}
+
+	/**
+	 * Removes a player from the list of connectedPlayers, and from the
+	 * names that getPlayer looks players up by
+	 *
+	 * @param player
+	 */
+	private void removeConnectedPlayer(Player player) {
+		if (player == null || !this.connectedPlayers.remove(player)) {
+			return;
+		}
+		connectedByName.remove(player.getName());
+		//another connected player may have the same name
 		for (Player pm : this.connectedPlayers) {
-			if (pm.getName().equals(name)) {
-				return pm;
+			if (pm.getName().equals(player.getName())) {
+				connectedByName.put(pm.getName(), pm);
+				break;
 			}
 		}
-		return null;
 	}
 
 	/**
@@ -342,8 +420,8 @@ public class GameServer extends Thread {
 
 		}
 		if (alreadyConnected == false) {
-			if (!player.equals(multiplayer.getCurrentPlayer())) {
-				this.connectedPlayers.add(player);
+			if (!player.equals(host)) {
+				addConnectedPlayer(player);
 				System.out.println("Adding: " + player.getName());
 				board.addPlayers(player);
 			}
@@ -381,10 +459,115 @@ public class GameServer extends Thread {
 		}
 	}
 
+	/**
+	 * Tells the players that the server has changed a player's health, eg
+	 * because an enemy hit them. Each hit on a player is numbered, so that
+	 * their client only takes it once. Until that player's client says it has
+	 * taken the hit, the health it sends is ignored, and the same health and
+	 * number are sent again each tick for up to HEALTH_RESENDS ticks. The host
+	 * shares its players with the server, so it is never waited for.
+	 *
+	 * @param player whose health the server changed
+	 * @param health the player was left with, 0 or less if they died
+	 */
+	public void sendServerHealth(Player player, int health) {
+		Integer lastHit = serverHits.get(player);
+		int hit = lastHit == null ? 1 : lastHit + 1;
+		serverHits.put(player, hit);
+		new HealthPacket(player.getName(), health, hit).writeData(this);
+		if (player != host) {
+			healthFromServer.put(player, new ServerHealth(health, hit));
+		}
+	}
+
+	/**
+	 * Sends again the healths given by sendServerHealth that the clients
+	 * haven't said they have taken yet. Should be called once a tick.
+	 */
+	public void resendServerHealth() {
+		Iterator<Map.Entry<Player, ServerHealth>> entries = healthFromServer.entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry<Player, ServerHealth> entry = entries.next();
+			ServerHealth serverHealth = entry.getValue();
+			if (--serverHealth.resends <= 0) {
+				entries.remove();
+			} else {
+				new HealthPacket(entry.getKey().getName(), serverHealth.health,
+						serverHealth.hit).writeData(this);
+			}
+		}
+	}
+
+	/**
+	 * Tells the players that an enemy has been killed, by sending it with its
+	 * health at 0 or less. The simulation stops sending enemies once they are
+	 * killed, so this is sent again each tick for HEALTH_RESENDS ticks in case
+	 * it is lost.
+	 *
+	 * @param enemy that was killed
+	 */
+	public void sendEnemyDeath(NPC enemy) {
+		enemyDeaths.put(enemy, HEALTH_RESENDS);
+		new EnemyPacket(enemy).writeData(this);
+	}
+
+	/**
+	 * Sends again the enemies given to sendEnemyDeath. Should be called once a tick.
+	 */
+	public void resendEnemyDeaths() {
+		Iterator<Map.Entry<NPC, Integer>> entries = enemyDeaths.entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry<NPC, Integer> entry = entries.next();
+			if (entry.getValue() <= 1) {
+				entries.remove();
+			} else {
+				entry.setValue(entry.getValue() - 1);
+				new EnemyPacket(entry.getKey()).writeData(this);
+			}
+		}
+	}
+
+	/**
+	 * Stops waiting for a client to take the server's last hit on its player,
+	 * once the client says it has
+	 *
+	 * @param player the client sent a HealthPacket for
+	 * @param hit the number of the last server hit the client has taken
+	 */
+	private void takenServerHit(Player player, int hit) {
+		ServerHealth serverHealth = healthFromServer.get(player);
+		if (serverHealth != null && hit >= serverHealth.hit) {
+			healthFromServer.remove(player);
+		}
+	}
+
+	/**
+	 * Checks whether the health a client sent for its player should be used.
+	 * It isn't while the server is waiting for the client to take a hit the
+	 * server made, because the client sent it before it knew about the hit.
+	 *
+	 * @param player the client sent the health for
+	 * @return whether to set the player's health to it
+	 */
+	private boolean acceptClientHealth(Player player) {
+		return !healthFromServer.containsKey(player);
+	}
+
 	public List<Player> getConnectedPlayers() {
 		return connectedPlayers;
 	}
 
+	public WorldClock getClock() {
+		return clock;
+	}
+
+	/**
+	 * @return true if no player is hosting this server
+	 */
+	public boolean isDedicated() {
+		return host == null;
+	}
+
 	/**
 	 * Helper method that represents a boolean as an int
 	 *
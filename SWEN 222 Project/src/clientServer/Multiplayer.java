@@ -4,6 +4,8 @@ import game.Board;
 import game.DestinysWild;
 import game.Player;
 import game.Room;
+import game.TickScheduler;
+import game.WorldClock;
 
 import java.awt.Canvas;
 import java.awt.HeadlessException;
@@ -24,6 +26,8 @@ public class Multiplayer extends Canvas implements Runnable {
 	private DestinysWild game;
 	private Player currentPlayer;
 	private Thread thread;
+	private TickScheduler.Ticker ticker;
+	private ServerSimulation simulation;
 
 	public Multiplayer(DestinysWild game, Board board, Player currentPlayer) {
 		this.game = game;
@@ -53,20 +57,41 @@ public class Multiplayer extends Canvas implements Runnable {
 	}
 
 	/**
-	 * Starts up the GameServer and the GameClient
+	 * Starts up the GameServer and the GameClient, and tells the host the
+	 * address other players can join on
 	 */
 	public synchronized void startServer() {
+		hostGame(true);
+	}
+
+	/**
+	 * Starts up the GameServer, with the simulation that moves the enemies,
+	 * and a GameClient connected to it
+	 * @param showAddress whether to tell the host the server's IP address
+	 */
+	private void hostGame(boolean showAddress) {
 		running = true;
-		server = new GameServer(board,this);
+		//the host's game shows the times the players send the server
+		WorldClock clock = new WorldClock(new WorldClock.Listener() {
+			public void timeChanged(int time, boolean rising) {
+				DestinysWild.getGameInterface().getGameImagePanel().setTime(time);
+			}
+		});
+		server = new GameServer(board,clock,currentPlayer);
 		server.start();
-		try {
-			JOptionPane.showMessageDialog(null, "The server's IP address is: " + InetAddress.getLocalHost().getHostAddress());
-		} catch (HeadlessException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		} catch (UnknownHostException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+		//the server moves the enemies for every player, including the host
+		simulation = new ServerSimulation(board,server);
+		simulation.start();
+		if (showAddress) {
+			try {
+				JOptionPane.showMessageDialog(null, "The server's IP address is: " + InetAddress.getLocalHost().getHostAddress());
+			} catch (HeadlessException e) {
+				// TODO Auto-generated catch block
+				e.printStackTrace();
+			} catch (UnknownHostException e) {
+				// TODO Auto-generated catch block
+				e.printStackTrace();
+			}
 		}
 		client = new GameClient(board,null,this);
 		client.start();
@@ -74,13 +99,17 @@ public class Multiplayer extends Canvas implements Runnable {
 	}
 
 	/**
-	 * Allows a Client to join a Server, if you provide the IP address
+	 * Allows a Client to join a Server, if you provide the IP address. If no
+	 * address is given, the game is hosted here instead, so that its enemies
+	 * are still moved by a server.
 	 */
 	public synchronized void joinServer() {
 		running = true;
 		String ipAddress = JOptionPane.showInputDialog(null,"Enter the server's IP Address");
 		if (ipAddress.equals("")) {
 			JOptionPane.showMessageDialog(null, "No IP Address was entered, so a regular game was created.");
+			hostGame(false);
+			return;
 		}
 		client = new GameClient(board,ipAddress,this);
 		client.start();
@@ -90,6 +119,12 @@ public class Multiplayer extends Canvas implements Runnable {
 
 	public synchronized void stop() {
 		running = false;
+		if (ticker != null) {
+			ticker.cancel();
+		}
+		if (simulation != null) {
+			simulation.stop();
+		}
 	}
 
 	public Player getCurrentPlayer(){
@@ -104,35 +139,17 @@ public class Multiplayer extends Canvas implements Runnable {
 		return server;
 	}
 
+	/**
+	 * Logs in, then ticks 60 times a second on the shared TickScheduler until stop() is called
+	 */
 	@Override
 	public void run() {
-		//System.out.println("Running");
-		long lastTime = System.nanoTime();
-		double nsPerTick = 1000000000D / 60D;
-		int ticks = 0;
-		double diff = 0;
-		long lastTimer = System.currentTimeMillis();
 		initialise();
-		while (running) {
-			long now = System.nanoTime();
-			diff += ((now - lastTime) / nsPerTick);
-			lastTime = now;
-			while (diff >= 1) {
-				ticks++;
+		ticker = TickScheduler.getShared().schedule("multiplayer", 60, new Runnable() {
+			public void run() {
 				tick();
-				diff--;
 			}
-			try {
-				Thread.sleep(2);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-			if (System.currentTimeMillis() - lastTimer >= 1000) {
-				lastTimer += 1000;
-				//System.out.println("Ticks: " + ticks);
-				ticks = 0;
-			}
-		}
+		});
 	}
 
 	private void tick() {
@@ -0,0 +1,201 @@
+package clientServer;
+
+import game.Board;
+import game.Player;
+import game.Room;
+import game.TickScheduler;
+import game.npcs.NPC;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import clientServer.packets.EnemyPacket;
+
+/**
+ * The ServerSimulation moves the enemies for every player in the game, so
+ * that each enemy is moved once a tick by the server, rather than once by
+ * every client in its room.
+ *
+ * -Only rooms with a connected player in them are simulated
+ * -The rooms are ticked at the same time on a fork-join pool. While they are,
+ *  the hits enemies make on players are only recorded, because a fatal hit
+ *  moves the player to another room. The hits are applied afterwards, on the
+ *  thread that ran the tick, in the order of the rooms
+ * -Once every room has been ticked, the server sends the players where each
+ *  enemy is, and the health of each player an enemy hurt. The clients show
+ *  what they are sent
+ * -Players' attacks are sent to the server, which does the damage and tells
+ *  the players about the enemies it kills, see GameServer.handleAttackPacket
+ */
+public class ServerSimulation {
+
+	public static final int TICKS = 30; //Simulation ticks a second, the same as the game
+
+	private final Board board;
+	private final GameServer server;
+	private final ForkJoinPool pool;
+	private final List<Room> activeRooms = new ArrayList<Room>(); //Rooms with players in, reused each tick
+	private TickScheduler.Ticker ticker;
+
+	/**
+	 * Ticks the rooms of a server on the common fork-join pool
+	 * @param board the server's board
+	 * @param server sends the enemies to the players, and says which players are connected
+	 */
+	public ServerSimulation(Board board, GameServer server) {
+		this(board, server, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param board the server's board
+	 * @param server sends the enemies to the players, and says which players are connected
+	 * @param pool the rooms are ticked on
+	 */
+	public ServerSimulation(Board board, GameServer server, ForkJoinPool pool) {
+		this.board = board;
+		this.server = server;
+		this.pool = pool;
+	}
+
+	/**
+	 * Starts ticking on the shared TickScheduler
+	 */
+	public void start() {
+		ticker = TickScheduler.getShared().schedule("simulation", TICKS, new Runnable() {
+			public void run() {
+				tick();
+			}
+		});
+	}
+
+	public void stop() {
+		if (ticker != null) {
+			ticker.cancel();
+		}
+	}
+
+	/**
+	 * @return the ticker running the simulation, which measures how long ticks take
+	 */
+	public TickScheduler.Ticker getTicker() {
+		return ticker;
+	}
+
+	/**
+	 * Moves the enemies in each room that has a connected player in it, then
+	 * sends the players where every one of those enemies is. The server does
+	 * not handle packets while the rooms are being ticked.
+	 */
+	public void tick() {
+		synchronized (board) {
+			activeRooms.clear();
+			for (Player player : server.getConnectedPlayers()) {
+				Room room = player.getCurrentRoom();
+				if (room != null && !activeRooms.contains(room)) {
+					activeRooms.add(room);
+				}
+			}
+			if (server.isDedicated()) {
+				//a host's game counts down every player's invincibility, a dedicated server has to
+				for (Player player : server.getConnectedPlayers()) {
+					player.updateInvincibility();
+				}
+			}
+			server.resendServerHealth();
+			server.resendEnemyDeaths();
+			for (Room.Hit hit : moveEnemies(activeRooms, pool)) {
+				int healthLeft = hit.getPlayer().getHealth() - hit.getDamage();
+				if (applyHit(hit)) {
+					server.sendServerHealth(hit.getPlayer(), healthLeft);
+				}
+			}
+			for (Room room : activeRooms) {
+				for (NPC enemy : room.getNpcs()) {
+					new EnemyPacket(enemy).writeData(server);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Moves every enemy in the given rooms once. The rooms are ticked at the
+	 * same time on the pool, and this returns once they have all finished.
+	 * The players the enemies hit do not take any damage yet, see applyHit.
+	 * @param rooms to tick, each room should only be given once
+	 * @param pool to tick the rooms on
+	 * @return the hits on players, in the order of the rooms
+	 */
+	public static List<Room.Hit> moveEnemies(List<Room> rooms, ForkJoinPool pool) {
+		for (Room room : rooms) {
+			room.setDeferHits(true);
+		}
+		try {
+			if (rooms.size() == 1) {
+				//no need to hand a single room to the pool
+				moveEnemies(rooms.get(0));
+			} else if (rooms.size() > 1) {
+				pool.invoke(new RoomTicks(rooms, 0, rooms.size()));
+			}
+		} finally {
+			for (Room room : rooms) {
+				room.setDeferHits(false);
+			}
+		}
+		List<Room.Hit> hits = new ArrayList<Room.Hit>();
+		for (Room room : rooms) {
+			hits.addAll(room.takeDeferredHits());
+		}
+		return hits;
+	}
+
+	/**
+	 * Does the damage of a hit to the player, who dies if it was fatal
+	 * @param hit made by an enemy during moveEnemies
+	 * @return false if the player was invincible, so the hit did nothing
+	 */
+	public static boolean applyHit(Room.Hit hit) {
+		Player player = hit.getPlayer();
+		if (player.isInvincible()) {
+			return false;
+		}
+		player.takeDamage(hit.getDamage());
+		return true;
+	}
+
+	/**
+	 * Moves every enemy in a room once, recording the players they walk into
+	 */
+	private static void moveEnemies(Room room) {
+		for (NPC enemy : room.getNpcs()) {
+			enemy.tryMove();
+		}
+	}
+
+	/**
+	 * Ticks a range of rooms, splitting it in half until there is one room each
+	 */
+	private static class RoomTicks extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final List<Room> rooms;
+		private final int from;
+		private final int to;
+
+		private RoomTicks(List<Room> rooms, int from, int to) {
+			this.rooms = rooms;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				moveEnemies(rooms.get(from));
+				return;
+			}
+			int mid = (from + to) / 2;
+			invokeAll(new RoomTicks(rooms, from, mid), new RoomTicks(rooms, mid, to));
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package clientServer.packets;
+
+import clientServer.GameClient;
+import clientServer.GameServer;
+
+public class AttackPacket extends Packet {
+
+	private int roomID;
+	private int npcID;
+	private int damage;
+
+	/**
+	 * Constructor for AttackPacket when it is being passed a byte array. The byte array
+	 *is read as a String array, which has each value separated from a comma. These
+	 *are parsed and passed into the AttackPacket.
+	 * @param data ->  data that is being passed in
+	 */
+	public AttackPacket(byte[] data) {
+		super(8);
+		String[] dataArray = readData(data).split(",");
+		this.roomID = Integer.parseInt(dataArray[0]);
+		this.npcID = Integer.parseInt(dataArray[1]);
+		this.damage = Integer.parseInt(dataArray[2]);
+	}
+
+	/**
+	 *Constructor for AttackPacket that takes in the enemy a player attacked
+	 * @param roomID -> the ID of the room the enemy is in
+	 * @param npcID -> the ID of the enemy that was attacked
+	 * @param damage -> the damage the attack does to the enemy
+	 */
+	public AttackPacket(int roomID, int npcID, int damage){
+		super(8);
+		this.roomID = roomID;
+		this.npcID = npcID;
+		this.damage = damage;
+	}
+
+	/**
+	 * Writes data to the GameClient, sending it to the server
+	 */
+	@Override
+	public void writeData(GameClient client) {
+		client.sendData(getData());
+	}
+
+	/**
+	 * Writes data to the GameServer, which then sends it to all the clients connected
+	 * to that server
+	 */
+	@Override
+	public void writeData(GameServer server) {
+		server.sendDataToAllClients(getData());
+	}
+
+	/**
+	 * Returns a byte array of the items contained in this packet
+	 */
+	@Override
+	public byte[] getData() {
+		return("08" + this.getRoomID() + "," + this.getNpcID() + "," + this.getDamage()).getBytes();
+	}
+
+	public int getRoomID(){
+		return this.roomID;
+	}
+
+	public int getNpcID(){
+		return this.npcID;
+	}
+
+	public int getDamage(){
+		return this.damage;
+	}
+
+}
@@ -2,6 +2,7 @@ package clientServer.packets;
 
 import game.Room;
 import game.Tile;
+import game.npcs.NPC;
 
 import java.awt.Point;
 
@@ -20,11 +21,13 @@ public class EnemyPacket extends Packet {
 	private int damage;
 	private int health;
 	private int id;
+	private int dir;
+	private int animationState;
 	
 	/**
 	 * Constructor for EnemyPacket when using an array of bytes.
-	 * From the array, it obtains the co-ordinates, room ID, health and
-	 * NPC ID.
+	 * From the array, it obtains the co-ordinates, room ID, health,
+	 * NPC ID, direction and animation state.
 	 * @param data
 	 */
 	public EnemyPacket(byte[] data) {
@@ -37,19 +40,25 @@ public class EnemyPacket extends Packet {
 		this.id = Integer.parseInt(dataArray[4]);
 		this.roomCoordsX = Integer.parseInt(dataArray[5]);
 		this.roomCoordsY = Integer.parseInt(dataArray[6]);
+		this.dir = Integer.parseInt(dataArray[7]);
+		this.animationState = Integer.parseInt(dataArray[8]);
 	}
 
 	/**
 	 * Constructor for EnemyPacket when it is being passed an NPC's co-ordinates,
-	 * current room, health and ID.
+	 * current room, health, ID, direction and animation state.
 	 * @param realCoordsX
 	 * @param realCoordsY
 	 * @param currentRoomID
 	 * @param health
 	 * @param id
+	 * @param roomCoordsX
+	 * @param roomCoordsY
+	 * @param dir
+	 * @param animationState
 	 */
 	public EnemyPacket(int realCoordsX, int realCoordsY, int currentRoomID,
-			int health, int id, int roomCoordsX, int roomCoordsY) {
+			int health, int id, int roomCoordsX, int roomCoordsY, int dir, int animationState) {
 		super(06);
 		this.realCoordsX = realCoordsX;
 		this.realCoordsY = realCoordsY;
@@ -58,6 +67,21 @@ public class EnemyPacket extends Packet {
 		this.id = id;
 		this.roomCoordsX = roomCoordsX;
 		this.roomCoordsY = roomCoordsY;
+		this.dir = dir;
+		this.animationState = animationState;
+	}
+	
+	/**
+	 * Constructor for EnemyPacket when it is being passed the NPC whose
+	 * co-ordinates, current room, health, ID, direction and animation state it sends.
+	 * An NPC that has been killed is sent with its health at 0 or less.
+	 * @param enemy
+	 */
+	public EnemyPacket(NPC enemy) {
+		this(enemy.getRealCoords().x, enemy.getRealCoords().y,
+				enemy.getCurrentRoom().getId(), enemy.getHealth(), enemy.getId(),
+				enemy.getRoomCoords().x, enemy.getRoomCoords().y, enemy.getDir(),
+				enemy.getAnimationState());
 	}
 	
 	/**
@@ -86,7 +110,8 @@ public class EnemyPacket extends Packet {
 	public byte[] getData() {
 		return ("06" + this.getRealCoordsX() + "," + this.getRealCoordsY()
 				+ "," + this.getCurrentRoomID() + "," + this.getHealth() + "," + this
-					.getID() + "," + this.getRoomCoordsX() + "," + this.getRoomCoordsY()).getBytes();
+					.getID() + "," + this.getRoomCoordsX() + "," + this.getRoomCoordsY()
+				+ "," + this.getDir() + "," + this.getAnimationState()).getBytes();
 	}
 
 	public int getRealCoordsX() {
@@ -117,4 +142,12 @@ public class EnemyPacket extends Packet {
 		return this.roomCoordsY;
 	}
 
+	public int getDir(){
+		return this.dir;
+	}
+
+	public int getAnimationState(){
+		return this.animationState;
+	}
+
 }
@@ -7,10 +7,12 @@ public class HealthPacket extends Packet {
 
 	private String userName;
 	private int health;
+	private int hit;
 	
 	/**
 	 * Constructor for a HealthPacket when passed an array of bytes.
-	 * From the array, it obtains the player's username and their health
+	 * From the array, it obtains the player's username, their health
+	 * and the number of the server's hit
 	 * @param data
 	 */
 	public HealthPacket(byte[] data){
@@ -18,18 +20,23 @@ public class HealthPacket extends Packet {
 		String[] dataArray = readData(data).split(",");
 		this.userName = dataArray[0];
 		this.health = Integer.parseInt(dataArray[1]);
+		this.hit = Integer.parseInt(dataArray[2]);
 	}
 	
 	/**
-	 * Constructor for a HealthPacket when passed a player's username
-	 * and their health
+	 * Constructor for a HealthPacket when passed a player's username,
+	 * their health and the number of a hit. The server numbers each hit
+	 * it makes on a player, and sends the number with the health the hit
+	 * left them with. A client sends the number of the last hit it took.
 	 * @param userName
 	 * @param health
+	 * @param hit
 	 */
-	public HealthPacket(String userName,int health){
+	public HealthPacket(String userName,int health,int hit){
 		super(07);
 		this.userName = userName;
 		this.health = health;
+		this.hit = hit;
 	}
 	
 	/**
@@ -54,7 +61,7 @@ public class HealthPacket extends Packet {
 	 */
 	@Override
 	public byte[] getData() {
-		return("07" + this.getUserName() + "," + getHealth()).getBytes();
+		return("07" + this.getUserName() + "," + getHealth() + "," + getHit()).getBytes();
 	}
 	
 	public String getUserName(){
@@ -64,4 +71,8 @@ public class HealthPacket extends Packet {
 	public int getHealth(){
 		return this.health;
 	}
+	
+	public int getHit(){
+		return this.hit;
+	}
 }
@@ -11,7 +11,7 @@ public abstract class Packet {
 	 */
 	public static enum PacketTypes {
 		INVALID(-1), LOGIN(00), DISCONNECT(01), MOVE(02), REMOVEITEM(03), TIME(
-				04), TORCH(05), ENEMY(06), HEALTH(07);
+				04), TORCH(05), ENEMY(06), HEALTH(07), ATTACK(8);
 		private int packetID;
 
 		private PacketTypes(int packetID) {
@@ -3,9 +3,12 @@ package game;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import game.items.Item;
 
 /**
@@ -18,6 +21,10 @@ public class Board implements Serializable{
 	private Room[][] board = new Room[5][5];
 	private List<Item> offBoardItems = new ArrayList<>(); //iterated through to figure out items in player's inventory
 	private Set<Player> players = new HashSet<Player>();
+	//indexes kept up to date by addRoom, addPlayers and removePlayers
+	private Map<Integer, Room> roomsById = new HashMap<>();
+	private Room[][] roomsByPos = new Room[5][5]; //rooms by the board position they hold themselves
+	private Map<String, Player> playersByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
 	/**
 	 * Empty constructor for initialising from file
@@ -61,35 +68,22 @@ public class Board implements Serializable{
 	 * Gets a room on the board from its board coordinates
 	 * @param row of the requested room
 	 * @param col of the requested room
-	 * @return the Room requested
+	 * @return the Room requested, or null if there is no room there
 	 */
 	public Room getRoomFromCoords(int row, int col){
-		for(int i=0; i<board.length; i++){
-			for(int j=0; j<board[0].length; j++){
-				if(board[i][j] != null && (board[i][j].getBoardPos().x == row && board[i][j].getBoardPos().y == col)){
-					return board[i][j];
-				}
-			}
+		if(row < 0 || row >= roomsByPos.length || col < 0 || col >= roomsByPos[0].length){
+			return null;
 		}
-		System.out.println("Could not find room with coords: " + row + ", " + col + " on the board :(");
-		return null;
+		return roomsByPos[row][col];
 	}
 
 	/**
 	 * Gets a room on the board from its id
 	 * @param id of the room requested
-	 * @return the Room requested
+	 * @return the Room requested, or null if there is no room with that id
 	 */
 	public Room getRoomFromId(int id){
-		for(int i=0; i<board.length; i++){
-			for(int j=0; j<board[0].length; j++){
-				if(board[i][j] != null && id == board[i][j].getId()){
-					return board[i][j];
-				}
-			}
-		}
-		System.out.println("Could not find room with id: " + id + " on the board :(");
-		return null;
+		return roomsById.get(id);
 	}
 
 	/**
@@ -106,7 +100,50 @@ public class Board implements Serializable{
 	 * @param y col of the room on the board
 	 */
 	public void addRoom(Room room, int x, int y) {
+		Room replaced = board[x][y];
 		board[x][y] = room;
+		if(replaced != null){
+			indexRoom(replaced.getId(), replaced.getBoardPos().x, replaced.getBoardPos().y);
+		}
+		if(room != null){
+			indexRoom(room.getId(), room.getBoardPos().x, room.getBoardPos().y);
+		}
+	}
+
+	/**
+	 * Finds the room with an id, and the room at a board position, again
+	 * after a room has been added or replaced. If more than one room matches,
+	 * the first one going through the rows and columns of the board is used.
+	 * @param id of the room that changed
+	 * @param row of the board position of the room that changed
+	 * @param col of the board position of the room that changed
+	 */
+	private void indexRoom(int id, int row, int col){
+		Room withId = null;
+		Room atPos = null;
+		for(int i=0; i<board.length; i++){
+			for(int j=0; j<board[0].length; j++){
+				Room room = board[i][j];
+				if(room == null){
+					continue;
+				}
+				if(withId == null && room.getId() == id){
+					withId = room;
+				}
+				if(atPos == null && room.getBoardPos().x == row && room.getBoardPos().y == col){
+					atPos = room;
+				}
+			}
+		}
+		if(withId == null){
+			roomsById.remove(id);
+		}
+		else{
+			roomsById.put(id, withId);
+		}
+		if(row >= 0 && row < roomsByPos.length && col >= 0 && col < roomsByPos[0].length){
+			roomsByPos[row][col] = atPos;
+		}
 	}
 
 	/**
@@ -128,7 +165,8 @@ public class Board implements Serializable{
 	}
 
 	/**
-	 * Gets the set of all players on this server
+	 * Gets the set of all players on this server. Use addPlayers and
+	 * removePlayers to change it, so that getPlayer stays up to date.
 	 * @return Set<Player> players in server
 	 */
 	public Set<Player> getPlayers() {
@@ -140,23 +178,23 @@ public class Board implements Serializable{
 	 * @param player to be added
 	 */
 	public void addPlayers(Player player){
-		players.add(player);
+		if(players.add(player) && player.getName() != null && !playersByName.containsKey(player.getName())){
+			playersByName.put(player.getName(), player);
+		}
 	}
 
 	/**
-	 * gets a player by user name from the set of players
+	 * gets a player by user name from the set of players. Names are
+	 * compared ignoring case. Players shouldn't change their name
+	 * while they are on the board.
 	 * @param userName of player requested
-	 * @return Player requested
+	 * @return Player requested, or null if there is no player with that name
 	 */
 	public Player getPlayer(String userName){
-		for (Player player : this.players){
-			//	System.out.println(player.getName() + " is in the board");
-			if (player.getName().equalsIgnoreCase(userName)){
-				return player;
-			}
+		if(userName == null){
+			return null;
 		}
-		System.out.println("No player with that name found");
-		return null;
+		return playersByName.get(userName);
 	}
 
 	/**
@@ -164,7 +202,19 @@ public class Board implements Serializable{
 	 * @param player to be removed
 	 */
 	public void removePlayers(Player player){
-		players.remove(player);
+		if(player == null || !players.remove(player)){
+			return;
+		}
+		if(player.getName() != null && playersByName.get(player.getName()) == player){
+			playersByName.remove(player.getName());
+			//another player may have the same name with different case
+			for(Player other : players){
+				if(player.getName().equalsIgnoreCase(other.getName())){
+					playersByName.put(other.getName(), other);
+					break;
+				}
+			}
+		}
 	}
 
 }
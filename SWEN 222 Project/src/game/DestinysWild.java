@@ -11,13 +11,13 @@ import javax.swing.SwingUtilities;
 
 import clientServer.Multiplayer;
 import clientServer.packets.DisconnectPacket;
-import clientServer.packets.EnemyPacket;
 import clientServer.packets.HealthPacket;
 import clientServer.packets.MovePacket;
 import clientServer.packets.TimePacket;
 import game.items.Health;
 import game.items.Item;
-import game.npcs.NPC;
+import renderer.AssetWarmup;
+import renderer.TickInterpolator;
 import view.GameInterface;
 import view.MenuInterface;
 
@@ -28,15 +28,18 @@ import view.MenuInterface;
  *
  */
 public class DestinysWild implements Runnable {
+	private static final String BOARD_FILE = "data/board.xml";
 	private static Board board;
 	private static Player currentPlayer;
 	private static GameInterface ui;
-	private boolean running = true;
 	private DestinysWild game = this;
 	private CountDownLatch latch;
 	private static Multiplayer multiplayer = null;
 	private boolean paused;
 	private MenuInterface mainMenu;
+	private AssetWarmup warmup;
+	private TickScheduler.Ticker gameTicker;
+	private TickScheduler.Ticker dayClockTicker;
 	private JFrame frame;
 	public int tickCount = 0;
 	private static boolean isTalking;
@@ -50,6 +53,9 @@ public class DestinysWild implements Runnable {
 	 */
 	public DestinysWild() {
 		mainMenu = new MenuInterface(this);
+		//load images and draw the rooms while the menu is showing
+		warmup = new AssetWarmup(BOARD_FILE, mainMenu);
+		warmup.start();
 	}
 
 	/**
@@ -103,7 +109,7 @@ public class DestinysWild implements Runnable {
 	 */
 	public void newGame(String playerName, JFrame frame) {
 		this.frame = frame;
-		setBoard(XMLParser.initialiseBoard("data/board.xml"));
+		setBoard(warmup.takeBoard());
 		setPlayer(new Player(playerName, new Point(500, 300),
 				board.getRoomFromCoords(2, 2)));
 		setUpGame(true);
@@ -117,7 +123,7 @@ public class DestinysWild implements Runnable {
 	 */
 	public void joinGame(String playerName, JFrame frame) {
 		this.frame = frame;
-		setBoard(XMLParser.initialiseBoard("data/board.xml"));
+		setBoard(warmup.takeBoard());
 		setPlayer(new Player(playerName, new Point(500, 300),
 				board.getRoomFromCoords(2, 2)));
 		setUpGame(false);
@@ -160,7 +166,10 @@ public class DestinysWild implements Runnable {
 	}
 
 	/**
-	 * the main game loop. Used to restrict the game speed for each user to a standard rate
+	 * the main game loop. Used to restrict the game speed for each user to a standard rate.
+	 * The game is ticked 30 times a second, and the time of day is changed once a second,
+	 * both on the shared TickScheduler. A player who joined someone else's server is sent
+	 * the time of day by it, so only a host changes the time itself.
 	 */
 	public void gameLoop() {
 		try {
@@ -168,39 +177,44 @@ public class DestinysWild implements Runnable {
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
-		long lastTime = System.nanoTime();
-		double nsPerTick = 1000000000D / 30D;
-		int ticks = 0;
-		double diff = 0;
-		long lastTimer = System.currentTimeMillis();
-		while (running) {
-			long now = System.nanoTime();
-			diff += ((now - lastTime) / nsPerTick);
-			lastTime = now;
-			while (diff >= 1) {
-				ticks++;
+		TickScheduler scheduler = TickScheduler.getShared();
+		gameTicker = scheduler.schedule("game", 30, new Runnable() {
+			public void run() {
 				tick();
-				diff--;
-			}
-			try {
-				Thread.sleep(2);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-			if (System.currentTimeMillis() - lastTimer >= 1000) {
-				lastTimer += 1000;
-				ui.changeTime();
-				ticks = 0;
 			}
+		});
+		if (multiplayer.getServer() != null) {
+			dayClockTicker = scheduler.schedule("day clock", 1, new Runnable() {
+				public void run() {
+					ui.changeTime();
+				}
+			});
 		}
 	}
 
+	/**
+	 * @return the ticker running the game, which measures how long ticks take
+	 */
+	public TickScheduler.Ticker getGameTicker() {
+		return gameTicker;
+	}
+
+	/**
+	 * @return the ticker changing the time of day, used to stop it, or null
+	 * 		if the time is being sent by someone else's server
+	 */
+	public TickScheduler.Ticker getDayClockTicker() {
+		return dayClockTicker;
+	}
+
 	/**
 	 * Updates the game per each tick
 	 */
 	private void tick() {
 		tickCount++;
 		updateGame();
+		//remember where everything is, so it can be drawn between ticks
+		TickInterpolator.recordTick(board, currentPlayer.getCurrentRoom());
 		// System.out.println("test");
 		// for(Player player : board.getPlayers()){
 		// player.updatePlayer();
@@ -216,28 +230,24 @@ public class DestinysWild implements Runnable {
 	 * Updates the game. Including talking count, sending multiplayer packets, and updating the player's info
 	 */
 	public void updateGame() {
-		TimePacket timePacket = new TimePacket(getGameInterface()
-				.getGameImagePanel().getTime());
-		// System.out.println("TimePacket: " + timePacket);
-		timePacket.writeData(multiplayer.getClient());
+		//only the host's time is sent, the other players show the time they are sent
+		if (multiplayer.getServer() != null) {
+			TimePacket timePacket = new TimePacket(getGameInterface()
+					.getGameImagePanel().getTime());
+			// System.out.println("TimePacket: " + timePacket);
+			timePacket.writeData(multiplayer.getClient());
+		}
 		updateTalking();
 		if (!prompted) {
 			startUpPrompt();
 		}
-		for (NPC enemy : currentPlayer.getCurrentRoom().getNpcs()) {
-			enemy.tryMove();
-			EnemyPacket enemyPacket = new EnemyPacket(enemy.getRealCoords().x,
-					enemy.getRealCoords().y, enemy.getCurrentRoom().getId(),
-					enemy.getHealth(), enemy.getId(), enemy.getRoomCoords().x,
-					enemy.getRoomCoords().y);
-			enemyPacket.writeData(multiplayer.getClient());
-		}
+		//the enemies are moved by the server, see ServerSimulation
 		// currentPlayer.updatePlayer();
 		for (Player player : board.getPlayers()) {
 			player.updatePlayer();
 		}
 		HealthPacket healthPacket = new HealthPacket(currentPlayer.getName(),
-				currentPlayer.getHealth());
+				currentPlayer.getHealth(), currentPlayer.getLastServerHit());
 		healthPacket.writeData(multiplayer.getClient());
 		ui.createMovePacket();
 	}
@@ -0,0 +1,98 @@
+package game;
+
+/**
+ * A Direction is one of the four compass directions on the board. Players
+ * move in a Direction, and each room's doormats lead out in one.
+ *
+ * -Directions are in the order north, east, south, west, the same as the
+ *  compass numbers used by the renderer
+ * -A move north or south covers half the distance of a move east or west,
+ *  because the tiles are drawn half as tall as they are wide
+ */
+public enum Direction {
+
+	NORTH("north"),
+	EAST("east"),
+	SOUTH("south"),
+	WEST("west");
+
+	private static final Direction[] VALUES = values();
+
+	private final String name;
+
+	private Direction(String name){
+		this.name = name;
+	}
+
+	/**
+	 * @param name "north", "east", "south" or "west"
+	 * @return the direction with that name, or null if there isn't one
+	 */
+	public static Direction fromName(String name){
+		for (Direction dir : VALUES) {
+			if (dir.name.equals(name)) {
+				return dir;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return "north", "east", "south" or "west"
+	 */
+	public String getName(){
+		return name;
+	}
+
+	/**
+	 * @param speed of the player moving
+	 * @return how far a move in this direction changes the x coordinate
+	 */
+	public int moveX(int speed){
+		switch (this) {
+		case EAST:
+			return speed;
+		case WEST:
+			return -speed;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * @param speed of the player moving
+	 * @return how far a move in this direction changes the y coordinate
+	 */
+	public int moveY(int speed){
+		switch (this) {
+		case NORTH:
+			return -(speed/2);
+		case SOUTH:
+			return speed/2;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * @param room the room being left
+	 * @return id of the room through the exit in this direction, or -1 if there is no exit
+	 */
+	public int getExit(Room room){
+		switch (this) {
+		case NORTH:
+			return room.getNorth();
+		case EAST:
+			return room.getEast();
+		case SOUTH:
+			return room.getSouth();
+		default:
+			return room.getWest();
+		}
+	}
+
+	@Override
+	public String toString(){
+		return name;
+	}
+}
@@ -4,7 +4,9 @@ import java.awt.Point;
 import java.io.Serializable;
 import java.net.InetAddress;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import clientServer.packets.TorchPacket;
 import game.items.Health;
@@ -22,15 +24,25 @@ import game.npcs.NPC;
  *
  */
 public class Player implements Serializable {
+	private static final int BOARD_SIZE = 5; //rooms in each row and column of the board
 	private String name;
 	private Point coords; //Coords relative to the game window
 	private int health = 100;
 	private Room currentRoom;
 	private List<Room> visitedRooms = new ArrayList<>();
-	private List<Item> inventory = new ArrayList<>();
+	private int visitedMask = 0; //one bit for each board position the player has visited
+	//the inventory is kept in a slot list for each type of item, each in the order they were added
+	private List<Health> healthItems = new ArrayList<>();
+	private List<Tool> toolItems = new ArrayList<>();
+	private List<Key> keyItems = new ArrayList<>();
+	//indexes of the inventory, built again whenever it changes
+	private Map<String, Tool> toolsByType = new HashMap<>(); //first tool of each type
+	private Map<String, Tool> toolsByBreakable = new HashMap<>(); //first tool that can break each breakable
+	private Map<Integer, Item> itemsById = new HashMap<>(); //last item added with each id
+	private transient volatile int inventoryVersion = 0; //goes up whenever the inventory changes
 	private int score = 0;
 	private int speed = 4;
-	private String orientation = "north";
+	private Direction orientation = Direction.NORTH;
 	private Tile currentTile;
 	private Tile prevTile;
 	private boolean isMoving;
@@ -46,6 +58,7 @@ public class Player implements Serializable {
 	private boolean invincible;
 	private boolean hasTorch = false;
 	private int invincibleCount = 60;
+	private int lastServerHit = 0; //number of the last hit from the server that was taken
 
 	public Player(){
 
@@ -83,7 +96,13 @@ public class Player implements Serializable {
 		this.health = health;
 		this.currentRoom = currentRoom;
 		this.visitedRooms = visitedRooms;
-		this.inventory = inventory;
+		for(Room room : visitedRooms){
+			visitedMask |= visitedBit(room);
+		}
+		for(Item item : inventory){
+			addToSlot(item);
+		}
+		inventoryChanged();
 		this.score = score;
 		this.currentTile = currentRoom.calcTile(coords);
 		this.port = -1;
@@ -96,12 +115,11 @@ public class Player implements Serializable {
 	 * @return boolean has tool or not
 	 */
 	public boolean hasTool(String breakable){
-		for(Item item : inventory){
-			if(item instanceof Tool && (((Tool)item).getBreakable().equals(breakable)) || breakable.equals("steelbeams")){
-				return true;
-			}
+		if(breakable.equals("steelbeams")){
+			//steel beams can be broken as long as the player is carrying something
+			return inventorySize() > 0;
 		}
-		return false;
+		return toolsByBreakable.containsKey(breakable);
 	}
 
 	/**
@@ -170,10 +188,10 @@ public class Player implements Serializable {
 
 		List<Object> occupants = new ArrayList<>();
 
-		Tile north = currentRoom.getTileFromRoomCoords(new Point(currTileRow-1, currTileCol));
-		Tile east = currentRoom.getTileFromRoomCoords(new Point(currTileRow, currTileCol+1));
-		Tile south = currentRoom.getTileFromRoomCoords(new Point(currTileRow+1, currTileCol));
-		Tile west = currentRoom.getTileFromRoomCoords(new Point(currTileRow, currTileCol-1));
+		Tile north = currentRoom.getTile(currTileRow-1, currTileCol);
+		Tile east = currentRoom.getTile(currTileRow, currTileCol+1);
+		Tile south = currentRoom.getTile(currTileRow+1, currTileCol);
+		Tile west = currentRoom.getTile(currTileRow, currTileCol-1);
 		Tile current = currentTile;
 
 		Object occupant;
@@ -231,8 +249,8 @@ public class Player implements Serializable {
 	 * @return boolean has key or not
 	 */
 	public boolean hasKey(){
-		for(Item item : inventory){
-			if(item instanceof Key && item.getId() == 5){
+		for(Key key : keyItems){
+			if(key.getId() == 5){
 				return true;
 			}
 		}
@@ -261,19 +279,19 @@ public class Player implements Serializable {
 		updateInvincibility();
 		int count = 0;
 		if(north){
-			tryMove("north");
+			tryMove(Direction.NORTH);
 			count++;
 		}
 		if(south){
-			tryMove("south");
+			tryMove(Direction.SOUTH);
 			count++;
 		}
 		if(east){
-			tryMove("east");
+			tryMove(Direction.EAST);
 			count++;
 		}
 		if(west){
-			tryMove("west");
+			tryMove(Direction.WEST);
 			count++;
 		}
 		if(count > 0){
@@ -318,6 +336,26 @@ public class Player implements Serializable {
 		}
 	}
 
+	/**
+	 * Sets the health the server says this player was left with after an enemy hit
+	 * them. The player becomes invincible, as it would have after taking the damage
+	 * itself, and dies if the hit was fatal. The server sends each hit more than
+	 * once, so a hit is only taken if it is newer than the last one taken.
+	 * @param health left after the hit, 0 or less if the player died
+	 * @param hit the number the server gave the hit
+	 */
+	public void takeServerHit(int health, int hit){
+		if(hit <= lastServerHit){
+			return; //the server sent it again, and it has already been taken
+		}
+		lastServerHit = hit;
+		setHealth(health);
+		invincible = true;
+		if(!checkPulse()){
+			partThisCruelWorldForAnother();
+		}
+	}
+
 	/**
 	 * After a player has stepped onto a tile, this method calculates whether to push the player
 	 * back or whether to pick up an item or whether to do nothing.
@@ -375,20 +413,9 @@ public class Player implements Serializable {
 	 * resets the player's inventory accordingly upon death
 	 */
 	public void resetInventory(){
-		List<Item> toRemove = new ArrayList<>();
-		for(Item item : inventory){
-//			if(item instanceof Key && item.getId() == 5){
-//				getCurrentRoom().addItem(item, prevTile.getRoomCoords().x, prevTile.getRoomCoords().y);
-//				((Key)item).setCoords(new Point(prevTile.getRoomCoords()));
-//				toRemove.add(item);
-//			}
-			if(item instanceof Health){
-				toRemove.add(item);
-			}
-		}
-		for(Item item : toRemove){
-			inventory.remove(item);
-		}
+		//health items are lost, tools and key pieces are kept
+		healthItems.clear();
+		inventoryChanged();
 	}
 
 	/**
@@ -397,12 +424,7 @@ public class Player implements Serializable {
 	 * @return boolean success
 	 */
 	public boolean tryEat(int itemId){
-		Item healthItem = null;
-		for (Item item : inventory){
-			if (item.getId() == itemId){
-				healthItem = item;
-			}
-		}
+		Item healthItem = getInventoryItemFromId(itemId);
 		if (healthItem != null){
 			if (getHealth() == 100){
 				return false;
@@ -415,7 +437,7 @@ public class Player implements Serializable {
 					//don't want player to have over 100 health
 					setHealth(100);
 				}
-				inventory.remove(healthItem);
+				removeInventoryItem(healthItem);
 				return true;
 
 			}
@@ -426,70 +448,45 @@ public class Player implements Serializable {
 	/**
 	 * Where the game logic player movement is done. The player will be moved onto a tile,
 	 * then that tile is tested for an occupant. If occupied, the movement is reversed.
-	 * @param direction the direction the player is trying to move
+	 * @param direction "north", "east", "south" or "west"
 	 * @return boolean whether the player move is successful or not
 	 */
 	public boolean tryMove(String direction){
+		Direction dir = Direction.fromName(direction);
+		if(dir == null){
+			throw new Error("Invalid Direction");
+		}
+		return tryMove(dir);
+	}
+
+	/**
+	 * Where the game logic player movement is done. The player will be moved onto a tile,
+	 * then that tile is tested for an occupant. If occupied, the movement is reversed.
+	 * If the player steps off the room from the doormat of an exit, they go through it.
+	 * @param direction the direction the player is trying to move
+	 * @return boolean whether the player move is successful or not
+	 */
+	public boolean tryMove(Direction direction){
 		orientation = direction;
 		prevTile = currentTile;
-		switch(direction){
-			case "north":
-				setCoords(getCoords().x, getCoords().y - speed/2);
-				currentTile = currentRoom.calcTile(coords);
-				if(!currentRoom.currTileIsInRoom(currentTile) && prevTile.isDoorMat().equals("north")){
-					if(currentRoom.getId() == 0 && !allowGate){
-						setCoords(getCoords().x, getCoords().y + speed/2);
-						currentTile = prevTile;
-						DestinysWild.startTalking("You must unlock this door first!");
-					}
-					else{
-						currentRoom = DestinysWild.getBoard().getRoomFromId(currentRoom.getNorth());
-						changeRoom(prevTile);
-					}
-				}
-				else if(!currentRoom.currTileIsInRoom(currentTile) || !canChangeTile()){
-					setCoords(getCoords().x, getCoords().y + speed/2);
-					currentTile = prevTile;
-				}
-				break;
-			case "east":
-				setCoords(getCoords().x + speed, getCoords().y);
-				currentTile = currentRoom.calcTile(coords);
-				if(!currentRoom.currTileIsInRoom(currentTile) && prevTile.isDoorMat().equals("east")){
-					currentRoom = DestinysWild.getBoard().getRoomFromId(currentRoom.getEast());
-					changeRoom(prevTile);
-				}
-				else if(!currentRoom.currTileIsInRoom(currentTile) || !canChangeTile()){
-					setCoords(getCoords().x - speed, getCoords().y);
-					currentTile = prevTile;
-				}
-				break;
-			case "south":
-				setCoords(getCoords().x, getCoords().y + speed/2);
-				currentTile = currentRoom.calcTile(coords);
-				if(!currentRoom.currTileIsInRoom(currentTile) && prevTile.isDoorMat().equals("south")){
-					currentRoom = DestinysWild.getBoard().getRoomFromId(currentRoom.getSouth());
-					changeRoom(prevTile);
-				}
-				else if(!currentRoom.currTileIsInRoom(currentTile) || !canChangeTile()){
-					setCoords(getCoords().x, getCoords().y - speed/2);
-					currentTile = prevTile;
-				}
-				break;
-			case "west":
-				setCoords(getCoords().x - speed, getCoords().y);
-				currentTile = currentRoom.calcTile(coords);
-				if(!currentRoom.currTileIsInRoom(currentTile) && prevTile.isDoorMat().equals("west")){
-					currentRoom = DestinysWild.getBoard().getRoomFromId(currentRoom.getWest());
-					changeRoom(prevTile);
-				}
-				else if(!currentRoom.currTileIsInRoom(currentTile) || !canChangeTile()){
-					setCoords(getCoords().x + speed, getCoords().y);
-					currentTile = prevTile;
-				}
-				break;
-			default:
-				throw new Error("Invalid Direction");
+		int moveX = direction.moveX(speed);
+		int moveY = direction.moveY(speed);
+		setCoords(getCoords().x + moveX, getCoords().y + moveY);
+		currentTile = currentRoom.calcTile(coords);
+		if(!currentRoom.currTileIsInRoom(currentTile) && prevTile.getDoorMat() == direction){
+			if(direction == Direction.NORTH && currentRoom.getId() == 0 && !allowGate){
+				setCoords(getCoords().x - moveX, getCoords().y - moveY);
+				currentTile = prevTile;
+				DestinysWild.startTalking("You must unlock this door first!");
+			}
+			else{
+				currentRoom = DestinysWild.getBoard().getRoomFromId(direction.getExit(currentRoom));
+				changeRoom(prevTile);
+			}
+		}
+		else if(!currentRoom.currTileIsInRoom(currentTile) || !canChangeTile()){
+			setCoords(getCoords().x - moveX, getCoords().y - moveY);
+			currentTile = prevTile;
 		}
 		return true;
 	}
@@ -499,7 +496,7 @@ public class Player implements Serializable {
 	 * @param previousTile the player's previous Tile
 	 */
 	public void changeRoom(Tile previousTile){
-		if(!visitedRooms.contains(currentRoom)){
+		if(!hasVisited(currentRoom)){
 			addCurrentRoom();
 		}
 
@@ -513,19 +510,19 @@ public class Player implements Serializable {
 		Point newPoint;
 
 		if(prevX == 0){
-			newPoint = currentRoom.getTileFromRoomCoords(new Point(9, previousTile.getRoomCoords().y)).getRealCoords();
+			newPoint = currentRoom.getTile(9, prevY).getRealCoords();
 			setCoords(newPoint.x, newPoint.y);
 		}
 		else if(prevX == 9){
-			newPoint = currentRoom.getTileFromRoomCoords(new Point(0, previousTile.getRoomCoords().y)).getRealCoords();
+			newPoint = currentRoom.getTile(0, prevY).getRealCoords();
 			setCoords(newPoint.x, newPoint.y);
 		}
 		else if(prevY == 0){
-			newPoint = currentRoom.getTileFromRoomCoords(new Point(previousTile.getRoomCoords().x, 9)).getRealCoords();
+			newPoint = currentRoom.getTile(prevX, 9).getRealCoords();
 			setCoords(newPoint.x, newPoint.y);
 		}
 		else if(prevY == 9){
-			newPoint = currentRoom.getTileFromRoomCoords(new Point(previousTile.getRoomCoords().x, 0)).getRealCoords();
+			newPoint = currentRoom.getTile(prevX, 0).getRealCoords();
 			setCoords(newPoint.x, newPoint.y);
 		}
 		currentTile = currentRoom.calcTile(coords);
@@ -533,18 +530,70 @@ public class Player implements Serializable {
 
 
 	/**
-	 * adds any room object to the visited Room list
+	 * adds any room object to the visited Room list, if it is not already in it
 	 * @param room room to add
 	 */
 	public void addRoom(Room room){
+		if(room != null && hasVisited(room)){
+			return;
+		}
 		visitedRooms.add(room);
+		visitedMask |= visitedBit(room);
 	}
 
 	/**
 	 * adds the current room to the list of visited rooms for the player
 	 */
 	public void addCurrentRoom(){
-		visitedRooms.add(currentRoom);
+		addRoom(currentRoom);
+	}
+
+	/**
+	 * checks whether the player has visited a room
+	 * @param room room to check
+	 * @return boolean visited or not
+	 */
+	public boolean hasVisited(Room room){
+		return room != null && (visitedMask & visitedBit(room)) != 0;
+	}
+
+	/**
+	 * checks whether the player has visited the room at a position on the board
+	 * @param row row of the room on the board
+	 * @param col col of the room on the board
+	 * @return boolean visited or not, false if the position is off the board
+	 */
+	public boolean hasVisited(int row, int col){
+		if(row < 0 || row >= BOARD_SIZE || col < 0 || col >= BOARD_SIZE){
+			return false;
+		}
+		return (visitedMask & visitedBit(row, col)) != 0;
+	}
+
+	/**
+	 * gets every room the player has visited as a bit mask. The room at
+	 * a board position has been visited if visitedBit(row, col) is set.
+	 * @return int visited mask
+	 */
+	public int getVisitedMask(){
+		return visitedMask;
+	}
+
+	/**
+	 * gets the bit used for a board position in the visited mask
+	 * @param row row of the room on the board
+	 * @param col col of the room on the board
+	 * @return int bit for the room
+	 */
+	public static int visitedBit(int row, int col){
+		return 1 << (row*BOARD_SIZE + col);
+	}
+
+	private static int visitedBit(Room room){
+		if(room == null || room.getBoardPos() == null){
+			return 0;
+		}
+		return visitedBit(room.getBoardPos().x, room.getBoardPos().y);
 	}
 
 	/**
@@ -564,7 +613,9 @@ public class Player implements Serializable {
 			if(item instanceof Key){
 				numKeyPieces++;
 			}
-			return inventory.add(item);
+			addToSlot(item);
+			inventoryChanged();
+			return true;
 		}
 		else if(item instanceof Score){
 			return true;
@@ -613,18 +664,9 @@ public class Player implements Serializable {
 	 * creates the key using some or all of your pieces
 	 */
 	public void removeKeys(){
-		List<Item> toRemove = new ArrayList<>();
-		for(Item item : inventory){
-			if(item instanceof Key){
-				toRemove.add(item);
-			}
-		}
-		for(Item item : toRemove){
-			if(item instanceof Key){
-				removeInventoryItem(item);
-				numKeyPieces--;
-			}
-		}
+		numKeyPieces -= keyItems.size();
+		keyItems.clear();
+		inventoryChanged();
 	}
 
 	/**
@@ -632,13 +674,7 @@ public class Player implements Serializable {
 	 * @return int number of health items
 	 */
 	public int numHealthItems(){
-		int count = 0;
-		for(Item item : inventory){
-			if(item instanceof Health){
-				count++;
-			}
-		}
-		return count;
+		return healthItems.size();
 	}
 
 	/**
@@ -646,13 +682,7 @@ public class Player implements Serializable {
 	 * @return int number of tools
 	 */
 	public int numToolItems(){
-		int count = 0;
-		for(Item item : inventory){
-			if(item instanceof Tool){
-				count++;
-			}
-		}
-		return count;
+		return toolItems.size();
 	}
 
 	/**
@@ -660,20 +690,64 @@ public class Player implements Serializable {
 	 * @return int num key items
 	 */
 	public int numKeyItems(){
-		int count = 0;
-		for(Item item : inventory){
-			if(item instanceof Key){
-				count++;
-			}
-		}
-		return count;
+		return keyItems.size();
 	}
+
 	/**
-	 * removes an item at 'index' from the player's inventory
+	 * gets the health item in a slot of the inventory
+	 * @param slot from 0 to numHealthItems()-1, in the order the items were added
+	 * @return Health item in the slot
+	 */
+	public Health getHealthItem(int slot){
+		return healthItems.get(slot);
+	}
+
+	/**
+	 * gets the tool in a slot of the inventory
+	 * @param slot from 0 to numToolItems()-1, in the order the tools were added
+	 * @return Tool in the slot
+	 */
+	public Tool getToolItem(int slot){
+		return toolItems.get(slot);
+	}
+
+	/**
+	 * gets a tool in the inventory by its type
+	 * @param type of tool, eg "machete"
+	 * @return the first Tool of that type, or null if the player doesn't have one
+	 */
+	public Tool getToolItem(String type){
+		return toolsByType.get(type);
+	}
+
+	/**
+	 * gets an item in the inventory by its id
+	 * @param id of the item
+	 * @return the last Item added with that id, or null if there isn't one
+	 */
+	public Item getInventoryItemFromId(int id){
+		return itemsById.get(id);
+	}
+
+	/**
+	 * removes an item at 'index' from the player's inventory. The index
+	 * is the position of the item in getInventory()
 	 * @param index index of item to be removed
 	 */
 	public void removeInventoryItem(int index){
-		inventory.remove(index);
+		if(index < 0 || index >= inventorySize()){
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + inventorySize());
+		}
+		if(index < healthItems.size()){
+			healthItems.remove(index);
+		}
+		else if(index < healthItems.size() + toolItems.size()){
+			toolItems.remove(index - healthItems.size());
+		}
+		else{
+			keyItems.remove(index - healthItems.size() - toolItems.size());
+		}
+		inventoryChanged();
 	}
 
 	/**
@@ -681,7 +755,76 @@ public class Player implements Serializable {
 	 * @param item item to be removed
 	 */
 	public void removeInventoryItem(Item item){
-		inventory.remove(item);
+		if(item instanceof Health){
+			healthItems.remove(item);
+		}
+		else if(item instanceof Tool){
+			toolItems.remove(item);
+		}
+		else if(item instanceof Key){
+			keyItems.remove(item);
+		}
+		inventoryChanged();
+	}
+
+	/**
+	 * Puts an item in the slot list for its type. Items of
+	 * other types, eg Score, aren't kept in the inventory.
+	 * @param item to be added
+	 */
+	private void addToSlot(Item item){
+		if(item instanceof Health){
+			healthItems.add((Health)item);
+		}
+		else if(item instanceof Tool){
+			toolItems.add((Tool)item);
+		}
+		else if(item instanceof Key){
+			keyItems.add((Key)item);
+		}
+	}
+
+	/**
+	 * @return the number of items in the player's inventory
+	 */
+	private int inventorySize(){
+		return healthItems.size() + toolItems.size() + keyItems.size();
+	}
+
+	/**
+	 * Records that the inventory has changed, so that anything
+	 * that has been drawn from it needs to be redrawn, and builds
+	 * the indexes of the inventory again
+	 */
+	private void inventoryChanged(){
+		toolsByType.clear();
+		toolsByBreakable.clear();
+		itemsById.clear();
+		for(Health item : healthItems){
+			itemsById.put(item.getId(), item);
+		}
+		for(Tool tool : toolItems){
+			itemsById.put(tool.getId(), tool);
+			if(!toolsByType.containsKey(tool.getType())){
+				toolsByType.put(tool.getType(), tool);
+			}
+			if(tool.getBreakable() != null && !toolsByBreakable.containsKey(tool.getBreakable())){
+				toolsByBreakable.put(tool.getBreakable(), tool);
+			}
+		}
+		for(Key key : keyItems){
+			itemsById.put(key.getId(), key);
+		}
+		inventoryVersion++;
+	}
+
+	/**
+	 * gets the version of the inventory, which goes up every time
+	 * an item is added to or removed from it
+	 * @return int inventory version
+	 */
+	public int getInventoryVersion(){
+		return inventoryVersion;
 	}
 
 	/**
@@ -738,6 +881,13 @@ public class Player implements Serializable {
 		this.health = health;
 	}
 
+	/**
+	 * @return the number of the last hit from the server this player took, or 0 if none
+	 */
+	public int getLastServerHit() {
+		return lastServerHit;
+	}
+
 	/**
 	 * gets the current room of the player
 	 * @return current room of player
@@ -755,7 +905,8 @@ public class Player implements Serializable {
 	}
 
 	/**
-	 * gets the list of rooms that the player has visited
+	 * gets the list of rooms that the player has visited. Rooms should
+	 * be added with addRoom, so that hasVisited knows about them.
 	 * @return List<Room> list of rooms
 	 */
 	public List<Room> getVisitedRooms() {
@@ -770,29 +921,10 @@ public class Player implements Serializable {
 	 * @return sorted inventory
 	 */
 	public List<Item> getInventory() {
-		List<Item> sortedInventory = new ArrayList<Item>();
-
-		//add health items
-		for (int i = 0; i < inventory.size(); ++i) {
-			if (inventory.get(i) instanceof Health) {
-				sortedInventory.add(inventory.get(i));
-			}
-		}
-
-		//add tools
-		for (int i = 0; i < inventory.size(); ++i) {
-			if (inventory.get(i) instanceof Tool) {
-				sortedInventory.add(inventory.get(i));
-			}
-		}
-
-		//finally, add key
-		for (int i = 0; i < inventory.size(); ++i) {
-			if (inventory.get(i) instanceof Key) {
-				sortedInventory.add(inventory.get(i));
-			}
-		}
-
+		List<Item> sortedInventory = new ArrayList<Item>(inventorySize());
+		sortedInventory.addAll(healthItems);
+		sortedInventory.addAll(toolItems);
+		sortedInventory.addAll(keyItems);
 		return sortedInventory;
 	}
 
@@ -821,7 +953,7 @@ public class Player implements Serializable {
 	}
 
 	public String getOrientation() {
-		return orientation;
+		return orientation.getName();
 	}
 
 	public boolean isInvincible(){
@@ -837,7 +969,7 @@ public class Player implements Serializable {
 	}
 
 	public void setOrientation(String orientation) {
-		this.orientation = orientation;
+		this.orientation = Direction.fromName(orientation);
 	}
 
 	public void setMoving(boolean isMoving) {
@@ -8,9 +8,15 @@ import game.obstacles.Obstacle;
 import java.awt.Point;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import clientServer.packets.RemoveItemPacket;
+import renderer.GameImagePanel;
 
 /**
  * A Room is represented by a 10x10 array of Tiles. It contains collections of the Obstacles, NPC's and Items in it.
@@ -19,6 +25,12 @@ import clientServer.packets.RemoveItemPacket;
  */
 public class Room implements Serializable{
 
+	//kinds of occupant a cell can have, see getOccupantKind
+	public static final int OCCUPANT_NONE = 0;
+	public static final int OCCUPANT_OBSTACLE = 1;
+	public static final int OCCUPANT_ITEM = 2;
+	public static final int OCCUPANT_NPC = 3;
+
 	private int ROOM_SIZE = 10; //the length of a room, size x size
 
 	 //ID's of the surrounding rooms
@@ -33,6 +45,39 @@ public class Room implements Serializable{
 	//private NPC[][] npcs = new NPC[ROOM_SIZE][ROOM_SIZE];
 	private List<NPC> npcs = new ArrayList<>();
 	private Item[][] items = new Item[ROOM_SIZE][ROOM_SIZE];
+	//first item and NPC with each id, kept up to date by addItem, removeItems, addNpc and removeNpcs
+	private Map<Integer, Item> itemsById = new HashMap<>();
+	private Map<Integer, NPC> npcsById = new HashMap<>();
+	//occupancy of each cell, indexed by row*ROOM_SIZE + col
+	private byte[] occupants = new byte[ROOM_SIZE*ROOM_SIZE]; //kind of occupant in each cell
+	private byte[] npcCounts = new byte[ROOM_SIZE*ROOM_SIZE]; //number of NPCs standing in each cell
+	private Map<NPC, Integer> npcCells = new IdentityHashMap<>(); //cell that each NPC is standing in
+	private long[] occupiedMask = new long[2]; //bit for each cell that can't be walked onto freely
+	private Direction[] doorMats = new Direction[ROOM_SIZE*ROOM_SIZE]; //exit each doormat cell leads to, or null
+	private transient volatile int version = 0; //goes up whenever the obstacles, items or NPCs change
+	private transient boolean deferHits = false; //whether hits on players are kept, see hitPlayer
+	private transient List<Hit> deferredHits; //hits kept since takeDeferredHits was last called
+
+	/**
+	 * A hit on a player by an enemy in this room, kept to be applied later
+	 */
+	public static class Hit {
+		private final Player player;
+		private final int damage;
+
+		public Hit(Player player, int damage) {
+			this.player = player;
+			this.damage = damage;
+		}
+
+		public Player getPlayer() {
+			return player;
+		}
+
+		public int getDamage() {
+			return damage;
+		}
+	}
 
 	/**
 	 * Constructor for Room. Each room has a position on the board, a unique
@@ -45,37 +90,60 @@ public class Room implements Serializable{
 		this.west = west;
 		this.Id = Id;
 		this.boardPos = boardPos;
+		updateDoorMats();
 	}
 
 	/**
-	 * Gets an item in this room by its id
+	 * Gets an item in this room by its id. If more than one item has the id,
+	 * the first one going through the rows and columns is returned.
 	 * @param id of item reqested
 	 * @return Item requested
 	 */
 	public Item getItemFromId(int id){
-		for (int row = 0; row < getItems().length; ++row) {
-			for (int col = 0; col < getItems()[0].length; ++col) {
-				Item item = getItems()[row][col];
+		return itemsById.get(id);
+	}
+
+	/**
+	 * Gets an NPC in this room by its id. If more than one NPC has the id,
+	 * the first one that was added is returned.
+	 * @param id of NPC reqested
+	 * @return NPC requested
+	 */
+	public NPC getNpcFromId(int id){
+		return npcsById.get(id);
+	}
+
+	/**
+	 * Finds the first item with an id again, after an item with that id
+	 * has been added or removed.
+	 * @param id of the item
+	 */
+	private void indexItem(int id){
+		for (int row = 0; row < items.length; ++row) {
+			for (int col = 0; col < items[0].length; ++col) {
+				Item item = items[row][col];
 				if(item != null && item.getId() == id){
-					return item;
+					itemsById.put(id, item);
+					return;
 				}
 			}
 		}
-		return null;
+		itemsById.remove(id);
 	}
 
 	/**
-	 * Gets an NPC in this room by its id
-	 * @param id of NPC reqested
-	 * @return NPC requested
+	 * Finds the first NPC with an id again, after an NPC with that id
+	 * has been added or removed.
+	 * @param id of the NPC
 	 */
-	public NPC getNpcFromId(int id){
+	private void indexNpc(int id){
 		for(NPC npc : npcs){
 			if(npc.getId() == id){
-				return npc;
+				npcsById.put(id, npc);
+				return;
 			}
 		}
-		return null;
+		npcsById.remove(id);
 	}
 
 	/**
@@ -104,13 +172,22 @@ public class Room implements Serializable{
 	}
 
 	/**
-	 * Calculates which Tile the player is standing on
+	 * Calculates which Tile the player is standing on.
+	 * Rather than checking every tile, the point is turned back into room coords,
+	 * and only the tiles around it are checked. The tiles overlap a little at their
+	 * edges, so they are checked in the same order as going through every row and
+	 * column, and the same tile is found.
 	 * @return Tile object that the player is standing on
 	 */
 	public Tile calcTile(Point coords){
-		for (int row = 0; row < getTiles().length; ++row) {
-			for (int col = 0; col < getTiles()[0].length; ++col) {
-				Tile current = getTiles()[row][col];
+		int firstRow = (int) Math.floor(GameImagePanel.calcRoomRow(coords.x, coords.y));
+		int firstCol = (int) Math.floor(GameImagePanel.calcRoomCol(coords.x, coords.y));
+		for (int row = firstRow; row <= firstRow+1; ++row) {
+			for (int col = firstCol; col <= firstCol+1; ++col) {
+				if (row < 0 || row >= tiles.length || col < 0 || col >= tiles[0].length) {
+					continue;
+				}
+				Tile current = tiles[row][col];
 				if (current != null && current.isOn(coords)){
 					return current;
 				}
@@ -134,7 +211,7 @@ public class Room implements Serializable{
 	 * Empty constructor for initialisation from file
 	 */
 	public Room(){
-
+		updateDoorMats();
 	}
 
 	/**
@@ -161,22 +238,54 @@ public class Room implements Serializable{
 
 
 	/**
-	 * Initialises the Tile[][] array with Tile objects
+	 * Initialises the Tile[][] array with Tile objects, and works
+	 * out which cells are occupied from the obstacles and items
 	 */
 	public void initialiseTiles(){
 		for(int row=0; row<tiles.length; row++){
 			for(int col=0; col<tiles[0].length; col++){
-				Item tempItem = items[row][col];
-				Obstacle tempObs = obstacles[row][col];
-				boolean occupied = false;
-				if(tempItem != null || tempObs != null){
-					occupied = true;
-				}
-				tiles[row][col] = new Tile(new Point(row, col), this, occupied);
+				tiles[row][col] = new Tile(new Point(row, col), this);
+				updateOccupant(row, col);
 			}
 		}
-		for(NPC npc : npcs){
-			tiles[npc.getRoomCoords().x][npc.getRoomCoords().y] = new Tile(new Point(npc.getRoomCoords().x, npc.getRoomCoords().y), this, true);
+	}
+
+	/**
+	 * Gets the exit that a cell is the doormat of. The doormats
+	 * are the two cells in front of each doorway.
+	 * @param row of the cell
+	 * @param col of the cell
+	 * @return Direction of the door from the cell, or null if it isn't a doormat
+	 */
+	public Direction getDoorMat(int row, int col){
+		if(!isInRoom(row, col)){
+			return null;
+		}
+		return doorMats[row*ROOM_SIZE + col];
+	}
+
+	/**
+	 * Works out which cells are doormats again, after the
+	 * rooms this room leads to have changed
+	 */
+	private void updateDoorMats(){
+		Arrays.fill(doorMats, null);
+		int middle = ROOM_SIZE/2;
+		int last = ROOM_SIZE-1;
+		setDoorMat(Direction.NORTH, 0, middle-1, 0, middle);
+		setDoorMat(Direction.EAST, middle-1, last, middle, last);
+		setDoorMat(Direction.SOUTH, last, middle-1, last, middle);
+		setDoorMat(Direction.WEST, middle-1, 0, middle, 0);
+	}
+
+	/**
+	 * Marks the two cells in front of a doorway as its doormats,
+	 * if this room has an exit that way
+	 */
+	private void setDoorMat(Direction exit, int row1, int col1, int row2, int col2){
+		if(exit.getExit(this) != -1){
+			doorMats[row1*ROOM_SIZE + col1] = exit;
+			doorMats[row2*ROOM_SIZE + col2] = exit;
 		}
 	}
 
@@ -186,43 +295,176 @@ public class Room implements Serializable{
 	 * @return An OBJECT type which will either be NPC, Item, Obstacle or null
 	 */
 	public Object getTileOccupant(Tile tile){
-		for(int row=0; row<tiles.length; row++){
-			for(int col=0; col<tiles[0].length; col++){
-				if(tile.getRoomCoords().equals(new Point(row, col))){
-					if(obstacles[row][col] != null){
-						return obstacles[row][col];
-					}
-					else if(items[row][col] != null){
-						return items[row][col];
+		int row = tile.getRoomCoords().x;
+		int col = tile.getRoomCoords().y;
+		switch(getOccupantKind(row, col)){
+			case OCCUPANT_OBSTACLE:
+				return obstacles[row][col];
+			case OCCUPANT_ITEM:
+				return items[row][col];
+			case OCCUPANT_NPC:
+				int cell = row*ROOM_SIZE + col;
+				for(NPC npc : npcs){
+					Integer npcCell = npcCells.get(npc);
+					if(npcCell != null && npcCell == cell){
+						return npc;
 					}
 				}
-			}
+				return null;
+			default:
+				//shouldn't happen
+				return null;
 		}
-		for(NPC npc : npcs){
-			//System.out.println("Tile coords: " + tile.getRoomCoords());
-			//System.out.println("NPC coords: " + npc.getCurrentTile().getRoomCoords());
-			if(tile.getRoomCoords().equals(npc.getCurrentTile().getRoomCoords())){
-				return npc;
-			}
+	}
+
+	/**
+	 * Gets what kind of occupant a cell has. Obstacles come before items,
+	 * and items come before NPCs, when a cell has more than one.
+	 * @param row of the cell
+	 * @param col of the cell
+	 * @return OCCUPANT_OBSTACLE, OCCUPANT_ITEM, OCCUPANT_NPC or OCCUPANT_NONE
+	 */
+	public int getOccupantKind(int row, int col){
+		if(!isInRoom(row, col)){
+			return OCCUPANT_NONE;
+		}
+		return occupants[row*ROOM_SIZE + col];
+	}
+
+	/**
+	 * whether a cell of this room has an obstacle, item or NPC in it
+	 * @param row of the cell
+	 * @param col of the cell
+	 * @return boolean whether the cell is occupied
+	 */
+	public boolean isOccupied(int row, int col){
+		if(!isInRoom(row, col)){
+			return false;
+		}
+		int cell = row*ROOM_SIZE + col;
+		return (occupiedMask[cell >> 6] & (1L << cell)) != 0;
+	}
+
+	/**
+	 * Moves an NPC to the cell of a tile in the occupancy of this room.
+	 * Each NPC is only ever counted in one cell, so walkers that share a
+	 * cell with each other or with an item don't clear each other.
+	 * @param npc that has moved
+	 * @param tile the NPC is now on, or null to take it off the room
+	 */
+	public void moveNpc(NPC npc, Tile tile){
+		if(tile == null){
+			moveNpc(npc, -1, -1);
+		}
+		else{
+			moveNpc(npc, tile.getRoomCoords().x, tile.getRoomCoords().y);
+		}
+	}
+
+	/**
+	 * Moves an NPC to a cell in the occupancy of this room
+	 * @param npc that has moved
+	 * @param row of the cell the NPC is now in
+	 * @param col of the cell the NPC is now in, a cell outside the room takes it off the room
+	 */
+	public void moveNpc(NPC npc, int row, int col){
+		Integer from = npcCells.remove(npc);
+		if(from != null){
+			npcCounts[from]--;
+			updateOccupant(from / ROOM_SIZE, from % ROOM_SIZE);
+		}
+		if(isInRoom(row, col)){
+			int to = row*ROOM_SIZE + col;
+			npcCells.put(npc, to);
+			npcCounts[to]++;
+			updateOccupant(row, col);
+		}
+	}
+
+	/**
+	 * Works out the kind of occupant in a cell again, after
+	 * something in the cell has changed
+	 * @param row of the cell
+	 * @param col of the cell
+	 */
+	private void updateOccupant(int row, int col){
+		int cell = row*ROOM_SIZE + col;
+		byte kind;
+		if(obstacles[row][col] != null){
+			kind = OCCUPANT_OBSTACLE;
+		}
+		else if(items[row][col] != null){
+			kind = OCCUPANT_ITEM;
+		}
+		else if(npcCounts[cell] > 0){
+			kind = OCCUPANT_NPC;
+		}
+		else{
+			kind = OCCUPANT_NONE;
+		}
+		occupants[cell] = kind;
+		if(kind == OCCUPANT_NONE){
+			occupiedMask[cell >> 6] &= ~(1L << cell);
+		}
+		else{
+			occupiedMask[cell >> 6] |= 1L << cell;
 		}
-		//shouldn't happen
-		return null;
 	}
 
 	/**
 	 * Gets a Tile in this room by its coordinates
 	 * @param coordinates of Tile reqested
-	 * @return Tile requested
+	 * @return Tile requested, or null if the coordinates are outside the room
 	 */
 	public Tile getTileFromRoomCoords(Point tileCoords){
-		for(int row=0; row<tiles.length; row++){
-			for(int col=0; col<tiles[0].length; col++){
-				if(tiles[row][col].getRoomCoords().equals(tileCoords)){
-					return tiles[row][col];
-				}
-			}
+		return getTile(tileCoords.x, tileCoords.y);
+	}
+
+	/**
+	 * Gets a Tile in this room by its row and column
+	 * @param row of Tile requested
+	 * @param col of Tile requested
+	 * @return Tile requested, or null if the row and column are outside the room
+	 */
+	public Tile getTile(int row, int col){
+		if(!isInRoom(row, col)){
+			return null;
 		}
-		return null;
+		return tiles[row][col];
+	}
+
+	/**
+	 * Gets the Item at a row and column of this room
+	 * @param row of the Item
+	 * @param col of the Item
+	 * @return Item there, or null if there isn't one or the row and column are outside the room
+	 */
+	public Item getItem(int row, int col){
+		if(!isInRoom(row, col)){
+			return null;
+		}
+		return items[row][col];
+	}
+
+	/**
+	 * Gets the Obstacle at a row and column of this room
+	 * @param row of the Obstacle
+	 * @param col of the Obstacle
+	 * @return Obstacle there, or null if there isn't one or the row and column are outside the room
+	 */
+	public Obstacle getObstacle(int row, int col){
+		if(!isInRoom(row, col)){
+			return null;
+		}
+		return obstacles[row][col];
+	}
+
+	/**
+	 * whether a row and column are inside this room
+	 * @return boolean whether the row and column are inside the room
+	 */
+	public boolean isInRoom(int row, int col){
+		return row >= 0 && row < ROOM_SIZE && col >= 0 && col < ROOM_SIZE;
 	}
 
 	/**
@@ -233,6 +475,8 @@ public class Room implements Serializable{
 	 */
 	public void addObstacle(Obstacle obs, int x, int y){
 		obstacles[x][y] = obs;
+		updateOccupant(x, y);
+		markChanged();
 	}
 
 	/**
@@ -241,6 +485,11 @@ public class Room implements Serializable{
 	 */
 	public void addNpc(NPC npc){
 		npcs.add(npc);
+		if(!npcsById.containsKey(npc.getId())){
+			npcsById.put(npc.getId(), npc);
+		}
+		moveNpc(npc, npc.getRoomCoords().x, npc.getRoomCoords().y);
+		markChanged();
 	}
 
 	/**
@@ -250,7 +499,14 @@ public class Room implements Serializable{
 	 * @param y col of which the Item is to be added
 	 */
 	public void addItem(Item item, int x, int y){
+		Item replaced = items[x][y];
 		items[x][y] = item;
+		if(replaced != null){
+			indexItem(replaced.getId());
+		}
+		indexItem(item.getId());
+		updateOccupant(x, y);
+		markChanged();
 	}
 
 	/**
@@ -259,8 +515,8 @@ public class Room implements Serializable{
 	 */
 	public void removeObstacle(Obstacle obs){
 		obstacles[obs.getCoords().x][obs.getCoords().y] = null;
-		Tile tile = getTileFromRoomCoords(new Point(obs.getCoords().x, obs.getCoords().y));
-		tile.setOccupied(false);
+		updateOccupant(obs.getCoords().x, obs.getCoords().y);
+		markChanged();
 	}
 
 	/**
@@ -269,8 +525,9 @@ public class Room implements Serializable{
 	 */
 	public void removeNpcs(NPC npc){
 		npcs.remove(npc);
-		Tile tile = getTileFromRoomCoords(new Point(npc.getRoomCoords().x, npc.getRoomCoords().y));
-		tile.setOccupied(false);
+		indexNpc(npc.getId());
+		moveNpc(npc, -1, -1);
+		markChanged();
 	}
 
 	/**
@@ -278,11 +535,35 @@ public class Room implements Serializable{
 	 * @param item to be removed
 	 */
 	public void removeItems(Item item){
-		RemoveItemPacket removePacket = new RemoveItemPacket(this.getId(),item.getId());
-		removePacket.writeData(DestinysWild.getMultiplayer().getClient());
+		if(DestinysWild.getMultiplayer() != null){
+			RemoveItemPacket removePacket = new RemoveItemPacket(this.getId(),item.getId());
+			removePacket.writeData(DestinysWild.getMultiplayer().getClient());
+		}
+		Item removed = items[item.getCoords().x][item.getCoords().y];
 		items[item.getCoords().x][item.getCoords().y] = null;
-		Tile tile = getTileFromRoomCoords(new Point(item.getCoords().x, item.getCoords().y));
-		tile.setOccupied(false);
+		indexItem(item.getId());
+		if(removed != null){
+			indexItem(removed.getId());
+		}
+		updateOccupant(item.getCoords().x, item.getCoords().y);
+		markChanged();
+	}
+
+	/**
+	 * Records that the obstacles, items or NPCs in this room have changed,
+	 * so anything that has been drawn from them needs to be redrawn.
+	 */
+	public void markChanged(){
+		version++;
+	}
+
+	/**
+	 * gets the version of this room, which goes up every time
+	 * an obstacle, item or NPC is added, removed or changed
+	 * @return version of this room
+	 */
+	public int getVersion(){
+		return version;
 	}
 
 	/**
@@ -317,6 +598,46 @@ public class Room implements Serializable{
 		return tiles;
 	}
 
+	/**
+	 * This method should be called when an enemy in this room hits a player.
+	 * The player takes the damage straight away, unless hits are being
+	 * deferred, in which case the hit is kept until takeDeferredHits().
+	 * @param player that was hit
+	 * @param damage done by the enemy
+	 */
+	public void hitPlayer(Player player, int damage){
+		if(!deferHits){
+			player.takeDamage(damage);
+			return;
+		}
+		if(deferredHits == null){
+			deferredHits = new ArrayList<>();
+		}
+		deferredHits.add(new Hit(player, damage));
+	}
+
+	/**
+	 * Sets whether hits on players are kept rather than applied. Hits are kept
+	 * while rooms are simulated at the same time, because a hit can move a player
+	 * into another room.
+	 * @param deferHits true to keep hits until takeDeferredHits()
+	 */
+	public void setDeferHits(boolean deferHits){
+		this.deferHits = deferHits;
+	}
+
+	/**
+	 * @return the hits kept since this was last called, in the order they happened
+	 */
+	public List<Hit> takeDeferredHits(){
+		if(deferredHits == null || deferredHits.isEmpty()){
+			return Collections.emptyList();
+		}
+		List<Hit> hits = deferredHits;
+		deferredHits = null;
+		return hits;
+	}
+
 	/**
 	 * @return the npcs
 	 */
@@ -344,6 +665,7 @@ public class Room implements Serializable{
 	 */
 	public void setNorth(int north) {
 		this.north = north;
+		updateDoorMats();
 	}
 
 	/**
@@ -358,6 +680,7 @@ public class Room implements Serializable{
 	 */
 	public void setEast(int east) {
 		this.east = east;
+		updateDoorMats();
 	}
 
 	/**
@@ -372,6 +695,7 @@ public class Room implements Serializable{
 	 */
 	public void setSouth(int south) {
 		this.south = south;
+		updateDoorMats();
 	}
 
 	/**
@@ -386,6 +710,7 @@ public class Room implements Serializable{
 	 */
 	public void setWest(int west) {
 		this.west = west;
+		updateDoorMats();
 	}
 
 	/**
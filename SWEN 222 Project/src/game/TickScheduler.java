@@ -0,0 +1,275 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The TickScheduler runs tasks at fixed rates on one thread, sleeping
+ * until the next tick is due rather than polling for it.
+ *
+ * -Each task has its own rate, eg the game at 30 ticks a second and the day clock at one
+ * -Ticks are due at fixed times, so a late tick does not push back the ones after it
+ * -A task that falls behind runs extra ticks to catch up, but at most maxCatchUp of them.
+ *  Any more are skipped, so one long pause does not cause a burst of ticks
+ * -Each task records how long its ticks take, how many took longer than a tick
+ *  should (overruns), how many were skipped, and how late they started (drift)
+ * -A task that throws anything is cancelled, and the other tasks keep running
+ */
+public class TickScheduler {
+
+	public static final int DEFAULT_MAX_CATCH_UP = 5; //Extra ticks a task may run at once when it is behind
+	private static final long NANOS_PER_SECOND = 1000000000L;
+
+	private static TickScheduler shared;
+
+	private final List<Ticker> tickers = new CopyOnWriteArrayList<Ticker>();
+	private final Thread thread;
+	private volatile boolean running = true;
+
+	/**
+	 * A task being run by the scheduler, and what has been measured about it.
+	 * The measurements can be read from any thread.
+	 */
+	public static class Ticker {
+		private final String name;
+		private final Runnable task;
+		private final long periodNanos;
+		private final int maxCatchUp;
+		private long deadline;
+		private volatile boolean cancelled = false;
+
+		private volatile long ticks = 0;
+		private volatile long lastTickNanos = 0;
+		private volatile long maxTickNanos = 0;
+		private volatile long overruns = 0;
+		private volatile long skipped = 0;
+		private volatile long lastDriftNanos = 0;
+		private volatile long maxDriftNanos = 0;
+
+		private Ticker(String name, Runnable task, long periodNanos, int maxCatchUp, long start){
+			this.name = name;
+			this.task = task;
+			this.periodNanos = periodNanos;
+			this.maxCatchUp = maxCatchUp;
+			this.deadline = start + periodNanos;
+		}
+
+		/**
+		 * Runs the ticks that are due, catching up by at most maxCatchUp ticks
+		 * @param now the current System.nanoTime()
+		 * @return when the next tick is due
+		 */
+		private long runDue(long now){
+			if (now < deadline) {
+				return deadline;
+			}
+			long behind = (now - deadline) / periodNanos; //ticks due on top of the one at deadline
+			if (behind > maxCatchUp) {
+				skipped += behind - maxCatchUp;
+				deadline += (behind - maxCatchUp) * periodNanos;
+			}
+			while (deadline <= now && !cancelled) {
+				long start = System.nanoTime();
+				try {
+					task.run();
+				} catch (Throwable e) {
+					//every task shares the thread, so only the one that failed is stopped
+					System.err.println("Tick task " + name + " failed, and has been cancelled");
+					e.printStackTrace();
+					cancelled = true;
+				}
+				long took = System.nanoTime() - start;
+				long drift = start - deadline;
+				ticks++;
+				lastTickNanos = took;
+				maxTickNanos = Math.max(maxTickNanos, took);
+				lastDriftNanos = drift;
+				maxDriftNanos = Math.max(maxDriftNanos, drift);
+				if (took > periodNanos) {
+					overruns++;
+				}
+				deadline += periodNanos;
+			}
+			return deadline;
+		}
+
+		/**
+		 * Stops the task. A tick that is running is allowed to finish.
+		 */
+		public void cancel(){
+			cancelled = true;
+		}
+
+		public boolean isCancelled(){
+			return cancelled;
+		}
+
+		public String getName(){
+			return name;
+		}
+
+		/**
+		 * @return time between ticks, in nanoseconds
+		 */
+		public long getPeriodNanos(){
+			return periodNanos;
+		}
+
+		/**
+		 * @return the number of ticks that have run
+		 */
+		public long getTicks(){
+			return ticks;
+		}
+
+		/**
+		 * @return how long the last tick took to run, in nanoseconds
+		 */
+		public long getLastTickNanos(){
+			return lastTickNanos;
+		}
+
+		/**
+		 * @return how long the slowest tick took to run, in nanoseconds
+		 */
+		public long getMaxTickNanos(){
+			return maxTickNanos;
+		}
+
+		/**
+		 * @return the number of ticks that took longer than the time between ticks
+		 */
+		public long getOverruns(){
+			return overruns;
+		}
+
+		/**
+		 * @return the number of ticks skipped because the task was too far behind
+		 */
+		public long getSkippedTicks(){
+			return skipped;
+		}
+
+		/**
+		 * @return how long after it was due the last tick started, in nanoseconds
+		 */
+		public long getLastDriftNanos(){
+			return lastDriftNanos;
+		}
+
+		/**
+		 * @return how long after it was due the latest tick started, in nanoseconds
+		 */
+		public long getMaxDriftNanos(){
+			return maxDriftNanos;
+		}
+
+		@Override
+		public String toString(){
+			return String.format("%s: %d ticks, last %.2fms, max %.2fms, %d overruns, %d skipped, drift %.2fms (max %.2fms)",
+					name, ticks, lastTickNanos / 1e6, maxTickNanos / 1e6, overruns, skipped,
+					lastDriftNanos / 1e6, maxDriftNanos / 1e6);
+		}
+	}
+
+	/**
+	 * Creates a scheduler and starts its thread
+	 * @param name of the thread
+	 */
+	public TickScheduler(String name){
+		thread = new Thread(new Runnable() {
+			public void run() {
+				loop();
+			}
+		}, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * @return the scheduler shared by the game, the network and the music
+	 */
+	public static synchronized TickScheduler getShared(){
+		if (shared == null) {
+			shared = new TickScheduler("Tick scheduler");
+		}
+		return shared;
+	}
+
+	/**
+	 * Runs a task at a fixed rate, catching up by at most DEFAULT_MAX_CATCH_UP ticks
+	 * @param name used when reporting on the task
+	 * @param ticksPerSecond how often the task should run
+	 * @param task to run
+	 * @return the ticker, used to cancel the task or read its measurements
+	 */
+	public Ticker schedule(String name, double ticksPerSecond, Runnable task){
+		return schedule(name, ticksPerSecond, DEFAULT_MAX_CATCH_UP, task);
+	}
+
+	/**
+	 * Runs a task at a fixed rate. The first tick is one period from now.
+	 * @param name used when reporting on the task
+	 * @param ticksPerSecond how often the task should run
+	 * @param maxCatchUp the most extra ticks to run at once when the task is behind
+	 * @param task to run
+	 * @return the ticker, used to cancel the task or read its measurements
+	 */
+	public Ticker schedule(String name, double ticksPerSecond, int maxCatchUp, Runnable task){
+		if (ticksPerSecond <= 0) {
+			throw new IllegalArgumentException("Ticks per second must be positive");
+		}
+		if (maxCatchUp < 0) {
+			throw new IllegalArgumentException("Catch up ticks cannot be negative");
+		}
+		long period = Math.max(1, Math.round(NANOS_PER_SECOND / ticksPerSecond));
+		Ticker ticker = new Ticker(name, task, period, maxCatchUp, System.nanoTime());
+		tickers.add(ticker);
+		LockSupport.unpark(thread); //the new task may be due before the one being waited for
+		return ticker;
+	}
+
+	/**
+	 * @return the tasks being run, for reporting
+	 */
+	public List<Ticker> getTickers(){
+		return new ArrayList<Ticker>(tickers);
+	}
+
+	/**
+	 * Stops the scheduler. No more ticks are run once the current one finishes.
+	 */
+	public void shutdown(){
+		running = false;
+		for (Ticker ticker : tickers) {
+			ticker.cancel();
+		}
+		LockSupport.unpark(thread);
+	}
+
+	private void loop(){
+		while (running) {
+			long next = Long.MAX_VALUE;
+			for (Ticker ticker : tickers) {
+				if (ticker.isCancelled()) {
+					tickers.remove(ticker);
+					continue;
+				}
+				long due = ticker.runDue(System.nanoTime());
+				if (!ticker.isCancelled()) {
+					next = Math.min(next, due);
+				}
+			}
+			if (next == Long.MAX_VALUE) {
+				LockSupport.park(this);
+			} else {
+				long wait = next - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(this, wait);
+				}
+			}
+		}
+	}
+}
@@ -16,7 +16,6 @@ public class Tile implements Serializable{
 	private Point realCoords; //centre of the tile relative to the game window
 	private Point roomCoords; //coords relative to the Room
 	private Room room; //room that this tile belongs to
-	private boolean occupied = false; //states whether the tile is occupied or not. eg can be walked on
 
 	private double height = 34; //height of the tile in px
 	private double width = 70; //width of the tile in px
@@ -26,49 +25,29 @@ public class Tile implements Serializable{
 	 * @param realCoords coords relative to the game window
 	 * @param roomCoords coords relative to the Room
 	 * @param room Room that this Tile belongs to
-	 * @param occupied Whether this tile is occupied or not
 	 */
-	public Tile(Point roomCoords, Room room, boolean occupied) {
+	public Tile(Point roomCoords, Room room) {
 		this.roomCoords = roomCoords;
 		this.room = room;
-		this.occupied = occupied;
 		this.realCoords = GameImagePanel.calcRealCoords(roomCoords);
 	}
 
 	/**
-	 * checks whether this tile is occupied by an Item, NPC, or Obstacle
+	 * checks whether this tile is occupied by an Item, NPC, or Obstacle.
+	 * This is looked up in the occupancy of the room the tile belongs to.
 	 * @return boolean occupied
 	 */
 	public boolean isOccupied(){
-		return occupied;
-	}
-
-	/**
-	 * sets the occupied boolean
-	 * @param occupied
-	 */
-	public void setOccupied(boolean occupied){
-		this.occupied = occupied;
+		return room.isOccupied(roomCoords.x, roomCoords.y);
 	}
 
 	/**
 	 * Calculates whether this tile is a doormat or not. (The two tiles in front of any doorway)
-	 * @return Direction of the door from this doormat. If not a doormat, returns a useless string
+	 * This is looked up in the doormats of the room the tile belongs to.
+	 * @return Direction of the door from this doormat. If not a doormat, returns null
 	 */
-	public String isDoorMat(){
-		if(room.getNorth() != -1 && (roomCoords.equals(new Point(0,4)) || roomCoords.equals(new Point(0,5)))){
-			return "north";
-		}
-		else if(room.getEast() != -1 && (roomCoords.equals(new Point(4,9)) || roomCoords.equals(new Point(5,9)))){
-			return "east";
-		}
-		else if(room.getSouth() != -1 && (roomCoords.equals(new Point(9,4)) || roomCoords.equals(new Point(9,5)))){
-			return "south";
-		}
-		else if(room.getWest() != -1 && (roomCoords.equals(new Point(4,0)) || roomCoords.equals(new Point(5,0)))){
-			return "west";
-		}
-		return "not a door mat";
+	public Direction getDoorMat(){
+		return room.getDoorMat(roomCoords.x, roomCoords.y);
 	}
 
 	/**
@@ -0,0 +1,97 @@
+package game;
+
+/**
+ * The WorldClock keeps the time of day, without needing a game window.
+ * The time goes up from 0 to 63, then back down to 0, the same as the
+ * time in GameImagePanel. A dedicated server advances its own clock,
+ * and a server hosted by a player follows the times it is sent.
+ */
+public class WorldClock {
+
+	public static final int MAX_TIME = 63; //Time at the middle of the night
+
+	/**
+	 * Told when the time changes
+	 */
+	public interface Listener {
+		/**
+		 * @param time the new time, between 0 and MAX_TIME
+		 * @param rising true if the time is counting up towards night
+		 */
+		public void timeChanged(int time, boolean rising);
+	}
+
+	private int time = 0;
+	private boolean rising = true;
+	private final Listener listener;
+
+	/**
+	 * Creates a clock at the start of the day
+	 * @param listener told when the time changes, may be null
+	 */
+	public WorldClock(Listener listener){
+		this.listener = listener;
+	}
+
+	/**
+	 * This method should move the time on by one, turning round
+	 * at MAX_TIME and at 0.
+	 */
+	public void advance(){
+		int newTime;
+		boolean newRising;
+		synchronized (this) {
+			if (rising) {
+				time++;
+				if (time == MAX_TIME) {
+					rising = false;
+				}
+			} else {
+				time--;
+				if (time == 0) {
+					rising = true;
+				}
+			}
+			newTime = time;
+			newRising = rising;
+		}
+		notifyListener(newTime, newRising);
+	}
+
+	/**
+	 * This method should set the time, keeping it between 0 and MAX_TIME.
+	 * The direction the time is counting in only changes at either end.
+	 * @param newTime the time to set
+	 */
+	public void setTime(int newTime){
+		boolean newRising;
+		synchronized (this) {
+			time = Math.max(0, Math.min(MAX_TIME, newTime));
+			if (time == MAX_TIME) {
+				rising = false;
+			} else if (time == 0) {
+				rising = true;
+			}
+			newTime = time;
+			newRising = rising;
+		}
+		notifyListener(newTime, newRising);
+	}
+
+	public synchronized int getTime(){
+		return time;
+	}
+
+	/**
+	 * @return true if the time is counting up towards night
+	 */
+	public synchronized boolean isRising(){
+		return rising;
+	}
+
+	private void notifyListener(int newTime, boolean newRising){
+		if (listener != null) {
+			listener.timeChanged(newTime, newRising);
+		}
+	}
+}
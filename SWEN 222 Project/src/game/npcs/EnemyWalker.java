@@ -11,6 +11,8 @@ import java.awt.Point;
 import java.io.Serializable;
 
 import renderer.GameImagePanel;
+import clientServer.Multiplayer;
+import clientServer.packets.AttackPacket;
 
 /**
  * An EnemyWalker is an NPC that causes harm to the player on impact, can be killed by the player,
@@ -19,6 +21,7 @@ import renderer.GameImagePanel;
  *
  */
 public class EnemyWalker implements NPC, Serializable, Interactable {
+	public static final int ATTACK_DAMAGE = 2; //Damage a player's attack does
 	private String type;
 	private Point roomCoords; //room coords
 	private Point realCoords; // real coords in respect to the window
@@ -151,18 +154,15 @@ public class EnemyWalker implements NPC, Serializable, Interactable {
 	/**
 	 * Acts as collision detection for this walker. This includes triggering damage to the player
 	 * upon impact via the following method: checkHitPlayer(). If the walker cannot change tile,
-	 * it is moved back to the tile it came from.
+	 * it is moved back to the tile it came from. The walker is taken out of the room's occupancy
+	 * while it moves, so that it doesn't block itself.
 	 *
 	 * @param x the x position that the walker is trying to move to
 	 * @param y the y position that the walker is trying to move to
 	 * @return boolean if can change tile
 	 */
 	public boolean tryChangeTile(int x, int y) {
-		if (currentRoom.getObstacles()[currentTile.getRoomCoords().x][currentTile.getRoomCoords().y] == null
-				&& currentRoom.getItems()[currentTile.getRoomCoords().x][currentTile.getRoomCoords().y] == null) {
-			//set the old tile to be unoccupied only if there isn't another block there
-			currentTile.setOccupied(false);		
-		}
+		currentRoom.moveNpc(this, null);
 		currentTile = currentRoom.calcTile(realCoords);
 		boolean loop = false;
 		if(strategy == "loop"){
@@ -171,23 +171,26 @@ public class EnemyWalker implements NPC, Serializable, Interactable {
 		if (currentTile == null || (currentTile.isOccupied() && loop)){
 			realCoords.translate(-x, -y);
 			currentTile = currentRoom.calcTile(realCoords);
-			currentTile.setOccupied(true);
+			currentRoom.moveNpc(this, currentTile);
 			checkHitPlayer();
 			return false;
 		}
-		currentTile.setOccupied(true);
+		currentRoom.moveNpc(this, currentTile);
 		checkHitPlayer();
 		return true;
 	}
 
 	/**
 	 * Checks whether this walker has come into contact with a player. If so, the
-	 * appropriate amount of damage is done to the player.
+	 * appropriate amount of damage is done to the player, through the room so that
+	 * the room can keep the hit while rooms are being simulated at the same time.
+	 * Only players in this walker's room can be hit.
 	 */
 	public void checkHitPlayer(){
 		for(Player player : DestinysWild.getBoard().getPlayers()){
-			if(currentTile.getRoomCoords().equals(player.getCurrentTile().getRoomCoords())){
-				player.takeDamage(damage);
+			if(player.getCurrentRoom() == currentRoom && player.getCurrentTile() != null
+					&& currentTile.getRoomCoords().equals(player.getCurrentTile().getRoomCoords())){
+				currentRoom.hitPlayer(player, damage);
 			}
 		}
 	}
@@ -199,7 +202,6 @@ public class EnemyWalker implements NPC, Serializable, Interactable {
 	public void takeDamage(int damage){
 		health = health - damage;
 		if(!checkPulse()){
-			currentTile.setOccupied(false);
 			currentRoom.removeNpcs(this);
 		}
 	}
@@ -219,11 +221,9 @@ public class EnemyWalker implements NPC, Serializable, Interactable {
 	 * resets the walker to its original place
 	 */
 	public void resetPos(){
-		if(prevTile != null){
-			prevTile.setOccupied(false);
-		}
 		realCoords = GameImagePanel.calcRealCoords(roomCoords);
 		currentTile = currentRoom.calcTile(realCoords);
+		currentRoom.moveNpc(this, currentTile);
 	}
 
 	/**
@@ -364,9 +364,16 @@ public class EnemyWalker implements NPC, Serializable, Interactable {
 
 	/**
 	 * Inherited from the Interactable interface. Deals with being attacked by the player.
+	 * In a multiplayer game the server keeps the enemies, so the attack is sent to it,
+	 * and it tells every player what the enemy's health is, or that it died.
 	 */
 	public void interact() {
-		takeDamage(2);
+		Multiplayer multiplayer = DestinysWild.getMultiplayer();
+		if(multiplayer != null && multiplayer.getClient() != null){
+			new AttackPacket(currentRoom.getId(), id, ATTACK_DAMAGE).writeData(multiplayer.getClient());
+			return;
+		}
+		takeDamage(ATTACK_DAMAGE);
 
 	}
 
@@ -385,6 +392,13 @@ public class EnemyWalker implements NPC, Serializable, Interactable {
 		return dir;
 	}
 
+	/**
+	 * @param dir the direction of the npc to be set, eg as sent by the server
+	 */
+	public void setDir(int dir) {
+		this.dir = dir;
+	}
+
 	/**
 	 * @return the animationState of the npc
 	 */
@@ -392,4 +406,11 @@ public class EnemyWalker implements NPC, Serializable, Interactable {
 	public int getAnimationState() {
 		return animationState;
 	}
+
+	/**
+	 * @param animationState the animationState of the npc to be set, eg as sent by the server
+	 */
+	public void setAnimationState(int animationState) {
+		this.animationState = animationState;
+	}
 }
@@ -71,6 +71,7 @@ public class Breakable implements Obstacle, Interactable,Serializable{
 				int newStage = Integer.valueOf(String.valueOf(type.charAt(typeLen-1))) + 1;
 				String newType = type.substring(0, typeLen-1) + String.valueOf(newStage);
 				type = newType;
+				DestinysWild.getPlayer().getCurrentRoom().markChanged();
 			}
 		}
 		else if(player.hasTool(type.substring(0, typeLen-1)) && type.equals("steelbeams1")){
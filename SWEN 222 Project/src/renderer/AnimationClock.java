@@ -0,0 +1,88 @@
+package renderer;
+
+/**
+ * The AnimationClock works out which frame of each animation should be
+ * drawn from how much time has passed, rather than from how many times
+ * the panel has been painted. Animations then run at the same speed
+ * whatever the frame rate, and extra repaints don't move them on.
+ *
+ * -Time is measured with System.nanoTime(), so it never goes backwards
+ * -The clock can be stopped at a given time, so that frames can be reproduced
+ */
+public class AnimationClock {
+
+	public static final long FRAME_NANOS = 1000000000L / 30; //Time each animation frame is shown for
+	public static final int WATER_FRAMES = 16; //Frames in the water animation
+	public static final int FIRE_FRAMES = 8; //Frames in the fire animation
+	public static final int WALKER_STATES = 20; //Animation states of an enemy walker, see EnemyWalker
+
+	private final long start = System.nanoTime();
+	private volatile long stoppedAt = -1; //Elapsed time the clock is stopped at, or -1 if it is running
+
+	/**
+	 * @return nanoseconds since the clock was created, or the time it was stopped at
+	 */
+	public long getElapsed(){
+		long stopped = stoppedAt;
+		if (stopped >= 0) {
+			return stopped;
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Works out which frame of an animation should be showing
+	 * @param frames the number of frames in the animation
+	 * @return the frame, between 0 and frames-1
+	 */
+	public int getFrame(int frames){
+		return (int) ((getElapsed() / FRAME_NANOS) % frames);
+	}
+
+	/**
+	 * @return the frame of the water animation that should be showing
+	 */
+	public int getWaterFrame(){
+		return getFrame(WATER_FRAMES);
+	}
+
+	/**
+	 * @return the frame of the fire animation that should be showing
+	 */
+	public int getFireFrame(){
+		return getFrame(FIRE_FRAMES);
+	}
+
+	/**
+	 * @return the animation state of an enemy walker that is always moving, eg bats
+	 */
+	public int getWalkerState(){
+		return getFrame(WALKER_STATES);
+	}
+
+	/**
+	 * @return whether a hurt player should be hidden, so that they flash
+	 */
+	public boolean isHurtFlash(){
+		return getFrame(2) == 1;
+	}
+
+	/**
+	 * Stops the clock at the given time. Every animation shows the
+	 * same frame until the clock is stopped somewhere else or started.
+	 * @param elapsed nanoseconds since the clock was created
+	 */
+	public void stopAt(long elapsed){
+		if (elapsed < 0) {
+			throw new IllegalArgumentException("Elapsed time cannot be negative");
+		}
+		stoppedAt = elapsed;
+	}
+
+	/**
+	 * Starts the clock running again after stopAt()
+	 */
+	public void start(){
+		stoppedAt = -1;
+	}
+}
@@ -0,0 +1,178 @@
+package renderer;
+
+import java.awt.Point;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+
+import game.Board;
+import game.Player;
+import game.Room;
+import game.XMLParser;
+
+/**
+ * The AssetWarmup does the slow work of loading the game while the title
+ * screen is showing, so that the first visit to a room does not cause a
+ * hitch on the event dispatch thread.
+ *
+ * -Every image in data/images is decoded in parallel on a fork-join pool
+ * -The sprite sheets are sliced into frames
+ * -The board is loaded, and the cached layers of every room are drawn
+ *  from all four view directions. The panel that draws them is a Swing
+ *  component, so it is made on the event dispatch thread and handed over
+ * -The loaded board is handed to the game with takeBoard(), because the
+ *  cached layers only match the rooms they were drawn from
+ */
+public class AssetWarmup extends Thread {
+
+	/**
+	 * Told how far the warm up has got
+	 */
+	public interface Listener {
+		/**
+		 * Called on the warm up thread each time a step finishes
+		 * @param done steps finished so far
+		 * @param total steps in the warm up, done equals total when it has finished
+		 */
+		public void warmupProgress(int done, int total);
+	}
+
+	private static final int SHEET_STEPS = 2; //Slicing the sprite sheets, and loading the board
+	private static final int ROOMS = 25; //Rooms on the 5x5 board
+	private static final long REPORT_MILLIS = 50; //Time between progress reports while decoding
+
+	private final String boardFile;
+	private final Listener listener;
+
+	private Board board;
+	private boolean finished = false;
+	private boolean taken = false;
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Creates the warm up. It still needs to be started.
+	 * @param boardFile the file the board is loaded from, eg "data/board.xml"
+	 * @param listener told about progress, may be null
+	 */
+	public AssetWarmup(String boardFile, Listener listener){
+		super("Asset warmup");
+		this.boardFile = boardFile;
+		this.listener = listener;
+		setDaemon(true);
+		setPriority(Thread.MIN_PRIORITY);
+	}
+
+	@Override
+	public void run() {
+		final int images = SpriteCache.listImageFiles().size();
+		final int total = images + SHEET_STEPS + ROOMS;
+
+		//decode on the pool, and report how many images are done while waiting
+		final AtomicInteger decoded = new AtomicInteger();
+		final ForkJoinPool pool = ForkJoinPool.commonPool();
+		ForkJoinTask<?> decoding = pool.submit(new Runnable() {
+			public void run() {
+				SpriteCache.preload(pool, decoded);
+			}
+		});
+		int last = -1;
+		while (!decoding.isDone()) {
+			if (decoded.get() != last) {
+				last = decoded.get();
+				report(last, total);
+			}
+			try {
+				Thread.sleep(REPORT_MILLIS);
+			} catch (InterruptedException e) {
+				break;
+			}
+		}
+		decoding.join();
+		int done = images;
+
+		SpriteSheets.load();
+		report(++done, total);
+
+		Board loaded = XMLParser.initialiseBoard(boardFile);
+		report(++done, total);
+
+		Room[][] grid = loaded.getBoard();
+		GameImagePanel panel = null;
+		for (int row = 0; row < grid.length && !cancelled; row++) {
+			for (int col = 0; col < grid[row].length && !cancelled; col++) {
+				Room room = grid[row][col];
+				if (room != null) {
+					if (panel == null) {
+						panel = createPanel(loaded, room);
+					}
+					if (panel != null) {
+						RoomLayerCache.prerender(panel, room);
+					}
+				}
+				report(++done, total);
+			}
+		}
+
+		synchronized (this) {
+			board = loaded;
+			finished = !cancelled;
+		}
+		report(total, total);
+	}
+
+	/**
+	 * Makes a panel to draw the rooms with on the event dispatch thread,
+	 * and waits for it
+	 * @param board the rooms are on
+	 * @param room the panel's player starts in
+	 * @return the panel, or null if the warm up was interrupted
+	 */
+	private GameImagePanel createPanel(final Board board, final Room room){
+		final GameImagePanel[] panel = new GameImagePanel[1];
+		try {
+			SwingUtilities.invokeAndWait(new Runnable() {
+				public void run() {
+					panel[0] = new GameImagePanel(board, new Player("warmup", new Point(500, 300), room));
+				}
+			});
+		} catch (InterruptedException e) {
+			cancelled = true;
+		} catch (InvocationTargetException e) {
+			throw new RuntimeException(e.getCause());
+		}
+		return panel[0];
+	}
+
+	private void report(int done, int total){
+		if (listener != null) {
+			listener.warmupProgress(Math.min(done, total), total);
+		}
+	}
+
+	/**
+	 * Gets the board to start a new game on. If the warm up has finished,
+	 * this is the board it drew the rooms of. Otherwise the warm up is
+	 * stopped, and a new board is loaded.
+	 * @return a board that has not been used by another game
+	 */
+	public Board takeBoard(){
+		synchronized (this) {
+			cancelled = true;
+			if (finished && !taken) {
+				taken = true;
+				return board;
+			}
+		}
+		return XMLParser.initialiseBoard(boardFile);
+	}
+
+	/**
+	 * @return whether every step of the warm up has finished
+	 */
+	public synchronized boolean isFinished(){
+		return finished;
+	}
+}
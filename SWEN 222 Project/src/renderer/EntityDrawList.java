@@ -0,0 +1,157 @@
+package renderer;
+
+import java.util.Arrays;
+
+import game.Player;
+import game.npcs.NPC;
+
+/**
+ * An EntityDrawList buckets the players and NPCs in a room by the cell
+ * they are standing on, so that the renderer can draw each cell's
+ * entities as it reaches that cell, without searching every entity
+ * for every cell.
+ *
+ * -Each cell holds a linked list of entities, stored in plain arrays
+ * -Entities in a cell keep the order they were added in
+ * -Once the arrays are big enough, building the list allocates nothing
+ */
+public class EntityDrawList {
+
+	public static final int NONE = -1; //End of a cell's list
+
+	private static final int ROOM_SIZE = 10;
+	private static final int CELLS = ROOM_SIZE * ROOM_SIZE;
+
+	private final int[] playerHeads = new int[CELLS];
+	private final int[] playerTails = new int[CELLS];
+	private Player[] players = new Player[8];
+	private int[] playerNext = new int[8];
+	private int playerCount = 0;
+
+	private final int[] npcHeads = new int[CELLS];
+	private final int[] npcTails = new int[CELLS];
+	private NPC[] npcs = new NPC[8];
+	private int[] npcNext = new int[8];
+	private int npcCount = 0;
+
+	/**
+	 * Creates a new, empty draw list
+	 */
+	public EntityDrawList(){
+		clear();
+	}
+
+	/**
+	 * Empties every cell, ready for the next frame
+	 */
+	public void clear(){
+		Arrays.fill(playerHeads, NONE);
+		Arrays.fill(npcHeads, NONE);
+		Arrays.fill(players, 0, playerCount, null);
+		Arrays.fill(npcs, 0, npcCount, null);
+		playerCount = 0;
+		npcCount = 0;
+	}
+
+	/**
+	 * Adds a player to the end of a cell's list
+	 * @param player to add
+	 * @param row of the cell in the room
+	 * @param col of the cell in the room
+	 */
+	public void addPlayer(Player player, int row, int col){
+		if (playerCount == players.length) {
+			players = Arrays.copyOf(players, playerCount*2);
+			playerNext = Arrays.copyOf(playerNext, playerCount*2);
+		}
+		int cell = row*ROOM_SIZE + col;
+		int index = playerCount++;
+		players[index] = player;
+		playerNext[index] = NONE;
+		if (playerHeads[cell] == NONE) {
+			playerHeads[cell] = index;
+		} else {
+			playerNext[playerTails[cell]] = index;
+		}
+		playerTails[cell] = index;
+	}
+
+	/**
+	 * Adds an NPC to the end of a cell's list
+	 * @param npc to add
+	 * @param row of the cell in the room
+	 * @param col of the cell in the room
+	 */
+	public void addNpc(NPC npc, int row, int col){
+		if (npcCount == npcs.length) {
+			npcs = Arrays.copyOf(npcs, npcCount*2);
+			npcNext = Arrays.copyOf(npcNext, npcCount*2);
+		}
+		int cell = row*ROOM_SIZE + col;
+		int index = npcCount++;
+		npcs[index] = npc;
+		npcNext[index] = NONE;
+		if (npcHeads[cell] == NONE) {
+			npcHeads[cell] = index;
+		} else {
+			npcNext[npcTails[cell]] = index;
+		}
+		npcTails[cell] = index;
+	}
+
+	/**
+	 * @return index of the first player in a cell, or NONE
+	 */
+	public int firstPlayer(int row, int col){
+		return playerHeads[row*ROOM_SIZE + col];
+	}
+
+	/**
+	 * @return index of the player after the given one in the same cell, or NONE
+	 */
+	public int nextPlayer(int index){
+		return playerNext[index];
+	}
+
+	/**
+	 * @return the player at an index given by firstPlayer or nextPlayer
+	 */
+	public Player getPlayer(int index){
+		return players[index];
+	}
+
+	/**
+	 * @return index of the first NPC in a cell, or NONE
+	 */
+	public int firstNpc(int row, int col){
+		return npcHeads[row*ROOM_SIZE + col];
+	}
+
+	/**
+	 * @return index of the NPC after the given one in the same cell, or NONE
+	 */
+	public int nextNpc(int index){
+		return npcNext[index];
+	}
+
+	/**
+	 * @return the NPC at an index given by firstNpc or nextNpc
+	 */
+	public NPC getNpc(int index){
+		return npcs[index];
+	}
+
+	/**
+	 * @return number of players in the list
+	 */
+	public int getPlayerCount(){
+		return playerCount;
+	}
+
+	/**
+	 * @return number of NPCs in the list
+	 */
+	public int getNpcCount(){
+		return npcCount;
+	}
+}
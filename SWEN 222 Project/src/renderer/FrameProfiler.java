@@ -0,0 +1,226 @@
+package renderer;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import game.TickScheduler;
+
+/**
+ * The FrameProfiler times each phase of drawing a frame, so that it is
+ * possible to tell which part of the renderer is using up the frame budget.
+ *
+ * -The last WINDOW times of every phase are kept in a ring buffer
+ * -Percentiles are only worked out when they are asked for
+ * -The results can be read through getPercentile() and report(),
+ *  or drawn over the game with drawOverlay()
+ * -The overlay also shows how the tasks on the shared TickScheduler are keeping
+ *  up: how long their last and slowest ticks took, how late their latest tick
+ *  started (drift), and how many ticks took too long (overruns)
+ */
+public class FrameProfiler {
+
+	/**
+	 * The phases of a frame that are timed
+	 */
+	public enum Phase {
+		NORTH_ROOM("drawNorthRoom"),
+		EAST_ROOM("drawEastRoom"),
+		GROUND("drawFrame"),
+		BOARD("drawBoard"),
+		DARKNESS("drawDarkness"),
+		COMPASS("drawCompass"),
+		TEXT("drawText"),
+		SCORE("drawScore"),
+		TOTAL("total");
+
+		private final String label;
+
+		private Phase(String label){
+			this.label = label;
+		}
+
+		/**
+		 * @return the name of the method this phase times
+		 */
+		public String getLabel(){
+			return label;
+		}
+	}
+
+	public static final int WINDOW = 256; //Number of frames kept for each phase
+	private static final int OVERLAY_REFRESH = 15; //Frames between overlay updates
+	private static final Phase[] PHASES = Phase.values();
+	private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 170);
+	private static final Font OVERLAY_FONT = new Font("Courier new", Font.PLAIN, 13);
+
+	private final long[][] samples = new long[PHASES.length][WINDOW];
+	private final long[] counts = new long[PHASES.length];
+	private final long[] sorted = new long[WINDOW]; //Scratch space for working out percentiles
+	private final List<String> overlayLines = new ArrayList<String>();
+
+	private boolean enabled = true;
+	private boolean overlayVisible = false;
+	private long frameStart;
+	private long phaseStart;
+	private int framesSinceOverlay = OVERLAY_REFRESH;
+
+	/**
+	 * This method should be called before anything in a frame is drawn
+	 */
+	public void beginFrame(){
+		if (enabled) {
+			frameStart = System.nanoTime();
+			phaseStart = frameStart;
+		}
+	}
+
+	/**
+	 * This method should be called when a phase has just finished.
+	 * The time since the last phase finished is recorded against it.
+	 * @param phase the phase that finished
+	 */
+	public void endPhase(Phase phase){
+		if (enabled) {
+			long now = System.nanoTime();
+			record(phase, now - phaseStart);
+			phaseStart = now;
+		}
+	}
+
+	/**
+	 * This method should be called when everything in a frame has been drawn
+	 */
+	public void endFrame(){
+		if (enabled) {
+			record(Phase.TOTAL, System.nanoTime() - frameStart);
+		}
+	}
+
+	private synchronized void record(Phase phase, long nanos){
+		int index = phase.ordinal();
+		samples[index][(int) (counts[index] % WINDOW)] = nanos;
+		counts[index]++;
+	}
+
+	/**
+	 * Works out a percentile of the recent times of a phase
+	 * @param phase the phase
+	 * @param percentile between 0 and 100, eg 95
+	 * @return the time in milliseconds, or 0 if the phase has not been timed
+	 */
+	public synchronized double getPercentile(Phase phase, double percentile){
+		int index = phase.ordinal();
+		int size = (int) Math.min(counts[index], WINDOW);
+		if (size == 0) {
+			return 0;
+		}
+		System.arraycopy(samples[index], 0, sorted, 0, size);
+		Arrays.sort(sorted, 0, size);
+		int rank = (int) Math.ceil(percentile / 100.0 * size) - 1;
+		rank = Math.max(0, Math.min(size - 1, rank));
+		return sorted[rank] / 1000000.0;
+	}
+
+	/**
+	 * @param phase the phase
+	 * @return how many times the phase has been timed since the last reset
+	 */
+	public synchronized long getSampleCount(Phase phase){
+		return counts[phase.ordinal()];
+	}
+
+	/**
+	 * Forgets every time that has been recorded
+	 */
+	public synchronized void reset(){
+		Arrays.fill(counts, 0);
+		framesSinceOverlay = OVERLAY_REFRESH;
+	}
+
+	/**
+	 * @return a table of the 50th, 95th and 99th percentile of every phase, in milliseconds
+	 */
+	public synchronized String report(){
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-14s %7s %7s %7s%n", "phase", "p50", "p95", "p99"));
+		for (Phase phase : PHASES) {
+			sb.append(line(phase)).append(String.format("%n"));
+		}
+		return sb.toString();
+	}
+
+	private String line(Phase phase){
+		return String.format("%-14s %7.2f %7.2f %7.2f", phase.getLabel(),
+				getPercentile(phase, 50), getPercentile(phase, 95), getPercentile(phase, 99));
+	}
+
+	/**
+	 * Draws the percentiles of every phase, and how the shared TickScheduler's
+	 * tasks are keeping up, over the game if the overlay is visible.
+	 * The numbers are only worked out again every few frames.
+	 * @param g graphics that are doing the drawing
+	 * @param x left of the overlay
+	 * @param y top of the overlay
+	 */
+	public void drawOverlay(Graphics g, int x, int y){
+		if (!overlayVisible) {
+			return;
+		}
+		synchronized (this) {
+			if (++framesSinceOverlay >= OVERLAY_REFRESH) {
+				framesSinceOverlay = 0;
+				overlayLines.clear();
+				overlayLines.add(String.format("%-14s %7s %7s %7s", "phase (ms)", "p50", "p95", "p99"));
+				for (Phase phase : PHASES) {
+					overlayLines.add(line(phase));
+				}
+				overlayLines.add(String.format("%-14s %7s %7s %7s %5s", "tick (ms)", "last", "max", "drift", "over"));
+				for (TickScheduler.Ticker ticker : TickScheduler.getShared().getTickers()) {
+					overlayLines.add(String.format("%-14s %7.2f %7.2f %7.2f %5d", ticker.getName(),
+							ticker.getLastTickNanos() / 1000000.0, ticker.getMaxTickNanos() / 1000000.0,
+							ticker.getMaxDriftNanos() / 1000000.0, ticker.getOverruns()));
+				}
+			}
+			g.setColor(OVERLAY_BACKGROUND);
+			g.fillRect(x, y, 380, 16 * overlayLines.size() + 8);
+			g.setColor(Color.WHITE);
+			g.setFont(OVERLAY_FONT);
+			for (int i = 0; i < overlayLines.size(); i++) {
+				g.drawString(overlayLines.get(i), x + 6, y + 16 * (i + 1));
+			}
+		}
+	}
+
+	/**
+	 * @param enabled whether frames should be timed at all
+	 */
+	public void setEnabled(boolean enabled){
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return whether frames are being timed
+	 */
+	public boolean isEnabled(){
+		return enabled;
+	}
+
+	/**
+	 * Shows the overlay if it is hidden, or hides it if it is showing
+	 */
+	public void toggleOverlay(){
+		overlayVisible = !overlayVisible;
+		framesSinceOverlay = OVERLAY_REFRESH;
+	}
+
+	/**
+	 * @return whether the overlay is being drawn
+	 */
+	public boolean isOverlayVisible(){
+		return overlayVisible;
+	}
+}
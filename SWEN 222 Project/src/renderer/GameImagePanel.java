@@ -8,10 +8,7 @@ import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 
-import javax.imageio.ImageIO;
 import javax.swing.JPanel;
 
 import game.Board;
@@ -31,12 +28,16 @@ public class GameImagePanel extends JPanel {
 	private Point curRoomCoords = new Point(2,2); //Temporary?
 	private Room curRoom; //The current Room Object
 
-	private static final String IMAGE_PATH = "data/images/"; //The path to all the images
 	private static final int DAY_TIME = 0;
 	private static final int DUSK = 1;
 	private static final int NIGHT_TIME = 2;
 	private static final int DAWN = 3;
 
+	private static final int ROOM_CELLS = 100; //Number of cells in a room
+
+	private static final int LIGHT_RADIUS = 50; //Radius of light around a player
+	private static final int TORCH_RADIUS = 120; //Radius of light around a player with a torch
+
 	private BufferedImage defaultCube; //The default image
 	private BufferedImage waterSprite; //Testing
 	private BufferedImage water; //Testing
@@ -76,7 +77,7 @@ public class GameImagePanel extends JPanel {
 	private int weX = gX+340; //Wall North x
 	private int weY = gY-262; //Wall North y
 
-	private String viewDir = "north";
+	private ViewDirection viewDir = ViewDirection.NORTH;
 
 	private boolean hurt = false;
 
@@ -88,6 +89,18 @@ public class GameImagePanel extends JPanel {
 	private int waterState = 0;
 	private int fireState = 0;
 
+	private volatile RenderThread renderThread; //Only set when active rendering is on
+	private boolean interpolating = false; //Whether entities are drawn between ticks
+	private float alpha = 0; //How far through the current tick this frame is
+	private Point drawCoords = new Point(); //Interpolated position of the entity being drawn
+	private volatile Color sceneBackground; //Background colour for the time of day, worked out every frame
+
+	private AnimationClock animationClock = new AnimationClock(); //Decides which animation frames are showing
+	private FrameProfiler profiler = new FrameProfiler(); //Times each phase of a frame
+
+	private EntityDrawList drawList = new EntityDrawList(); //Players and NPCs in the current room, by cell
+	private Lightmap lightmap = new Lightmap(1100, 800); //Darkness drawn over the game at night
+
 	private TileTest tile = new TileTest(70, 34, new Point(500,200));
 
 	public GameImagePanel(Board board, Player player){
@@ -95,7 +108,9 @@ public class GameImagePanel extends JPanel {
 		this.player = player;
 		curRoom = player.getCurrentRoom();
 		setDefault();
+		sceneBackground = getBackground();
 		updateBackground();
+		setBackground(sceneBackground);
 	}
 
 	/**
@@ -106,55 +121,126 @@ public class GameImagePanel extends JPanel {
 	 *  something will still be drawn
 	 */
 	public void setDefault(){
-		try {
-			defaultCube = ImageIO.read(new File("data/images/wireframecube.png"));
-			water = ImageIO.read(new File("data/images/waterSpriteSheet.png"));
-			waterSprite = water.getSubimage(0, 0, 70, 34);
-		} catch (IOException e) {
-			e.printStackTrace();
+		defaultCube = SpriteCache.getDefaultImage();
+		water = loadImage("waterSpriteSheet.png");
+		waterSprite = SpriteSheets.getWaterFrame(0);
+	}
+
+	/**
+	 * This method should start drawing the game on its own thread,
+	 * instead of waiting for Swing to repaint the panel.
+	 * @param frameCap most frames to draw each second, 0 for no cap
+	 */
+	public void startActiveRendering(int frameCap){
+		if (renderThread != null) {
+			return;
 		}
+		renderThread = new RenderThread(this, frameCap);
+		renderThread.start();
+	}
+
+	/**
+	 * This method should stop the render thread, so that the game
+	 * is drawn by paintComponent again.
+	 */
+	public void stopActiveRendering(){
+		if (renderThread != null) {
+			renderThread.stopRendering();
+			renderThread = null;
+		}
+	}
+
+	/**
+	 * @return the profiler that times each phase of drawing a frame
+	 */
+	public FrameProfiler getProfiler(){
+		return profiler;
+	}
+
+	/**
+	 * @return the clock that decides which animation frames are showing
+	 */
+	public AnimationClock getAnimationClock(){
+		return animationClock;
+	}
+
+	/**
+	 * @return the render thread, or null if active rendering is off
+	 */
+	public RenderThread getRenderThread(){
+		return renderThread;
 	}
 
 	@Override
 	protected void paintComponent(Graphics g) {
+		if (renderThread != null && renderThread.drawFrame(g)) {
+			//the scene has already been drawn by the render thread
+			return;
+		}
+		super.paintComponent(g);
+		if (renderThread == null) {
+			renderScene(g);
+		}
+		//the component is only changed here, on the EDT, never by the render thread
+		setBackground(sceneBackground);
+	}
+
+	/**
+	 * This method should draw the whole game scene. It is called by
+	 * paintComponent, or by the RenderThread when active rendering is on.
+	 * @param g graphics that are doing the drawing
+	 */
+	public void renderScene(Graphics g) {
+		interpolating = renderThread != null;
+		alpha = TickInterpolator.getAlpha();
 
 		updateStates();
 
 		curRoom = player.getCurrentRoom();
 		curRoomCoords = curRoom.getBoardPos();
-		super.paintComponent(g);
 
 		updatePlayerDirs();
 
-		//If the player is hurt, increase the hurt int every time this -
-		//method is called until they are no longer invincible
-		if (player.isInvincible()){
-			hurt = !hurt;
-		} else {
-			hurt = false;
+		//If the player is hurt, they flash until they are no longer invincible
+		hurt = player.isInvincible() && animationClock.isHurtFlash();
+
+		updateBackground();
+		if (interpolating) {
+			//the render thread's buffer is not filled in by paintComponent
+			g.setColor(sceneBackground);
+			g.fillRect(0, 0, getWidth(), getHeight());
 		}
 
+		profiler.beginFrame();
 		drawNorthRoom(g);
-		drawNorthWall(g);
+		profiler.endPhase(FrameProfiler.Phase.NORTH_ROOM);
 		drawEastRoom(g);
-		drawEastWall(g);
-		drawGround(g);
+		profiler.endPhase(FrameProfiler.Phase.EAST_ROOM);
+		drawFrame(g);
+		profiler.endPhase(FrameProfiler.Phase.GROUND);
 		drawBoard(g);
+		profiler.endPhase(FrameProfiler.Phase.BOARD);
 		drawDarkness(g);
-		updateBackground();
+		profiler.endPhase(FrameProfiler.Phase.DARKNESS);
 		drawCompass(g);
+		profiler.endPhase(FrameProfiler.Phase.COMPASS);
 		drawText(g);
+		profiler.endPhase(FrameProfiler.Phase.TEXT);
 		drawScore(g);
+		profiler.endPhase(FrameProfiler.Phase.SCORE);
+		profiler.endFrame();
+		profiler.drawOverlay(g, 10, 10);
 	}
 
 	/**
-	 * The water should cycle through animation
-	 * states, and this method should cycle the
-	 * waterState counter.
+	 * The water and fire should cycle through animation
+	 * states, and this method should set the waterState
+	 * and fireState counters from the animation clock, so
+	 * that everything in a frame shows the same state.
 	 */
 	public void updateStates() {
-		waterState = (waterState + 1) % 16;
-		fireState = (fireState + 1) % 8;
+		waterState = animationClock.getWaterFrame();
+		fireState = animationClock.getFireFrame();
 	}
 
 	/**
@@ -164,29 +250,22 @@ public class GameImagePanel extends JPanel {
 	 * on the current orientation of the board.
 	 */
 	public void updatePlayerDirs(){
-		if (viewDir.equals("north")){
-			north = player.isNorth();
-			east = player.isEast();
-			south = player.isSouth();
-			west = player.isWest();
-		}
-		else if (viewDir.equals("east")){
-			north = player.isWest();
-			east = player.isNorth();
-			south = player.isEast();
-			west = player.isSouth();
-		}
-		else if (viewDir.equals("south")){
-			north = player.isSouth();
-			east = player.isWest();
-			south = player.isNorth();
-			west = player.isEast();
-		}
-		else if (viewDir.equals("west")){
-			north = player.isEast();
-			east = player.isSouth();
-			south = player.isWest();
-			west = player.isNorth();
+		north = isFacing(player, viewDir.toCompass(0));
+		east = isFacing(player, viewDir.toCompass(1));
+		south = isFacing(player, viewDir.toCompass(2));
+		west = isFacing(player, viewDir.toCompass(3));
+	}
+
+	private static boolean isFacing(Player player, int compass){
+		switch (compass) {
+		case 0:
+			return player.isNorth();
+		case 1:
+			return player.isEast();
+		case 2:
+			return player.isSouth();
+		default:
+			return player.isWest();
 		}
 	}
 
@@ -243,10 +322,10 @@ public class GameImagePanel extends JPanel {
 
 	/**
 	 * This method should be called when it is not the state is
-	 * not DAY_TIME. This method should iterate through every
-	 * 10x10 area of pixels on the game panel, and draw variable
-	 * levels of darkness depending on the time of day. A circle
-	 * of light should be left around all players.
+	 * not DAY_TIME. The lightmap should be filled with a level of
+	 * darkness depending on the time of day, and a circle of light
+	 * should be cut out around all players in the room before it is
+	 * drawn over the game.
 	 * @param g graphics that are doing the drawing
 	 */
 	private void drawDarkness(Graphics g) {
@@ -255,73 +334,55 @@ public class GameImagePanel extends JPanel {
 			return;
 		}
 
-		for (int i = 0; i < 110; ++i) {
-			for (int j = 0; j < 80; ++j) {
-				//initially assumed that black drawn
-				boolean drawDarkness = true;
-				//light should be drawn around every player
-				for (Player player: board.getPlayers()) {
-					//only draw this player's torch if they are the current player's room
-					if (player != null && player.getCurrentRoom().equals(this.player.getCurrentRoom())) {
-						if (isPointInside(i*10, j*10+50, player)) {
-							//this 10x10 square is inside the player's area
-							drawDarkness = false;
-						}
-					}
-				}
-				if (drawDarkness) {
-					//should determine what colour darkness to draw
-					if (state == NIGHT_TIME) {
-						g.setColor(new Color(0, 0, 0, 230));
-					} else if (state == DUSK) {
-						g.setColor(new Color(0, 0, 0, (time - 39) * 9));
-					} else if (state == DAWN) {
-						g.setColor(new Color(0, 0, 0, time*12));
-					}
-					//draw the darkness in
-					g.fillRect(i*10, j*10, 10, 10);
+		lightmap.clear(getDarknessAlpha());
+		//light should be drawn around every player
+		for (Player player: board.getPlayers()) {
+			//only draw this player's torch if they are the current player's room
+			if (player != null && player.getCurrentRoom().equals(this.player.getCurrentRoom())) {
+				int[] playerCoords = calculatePlayerCoords(player);
+				int xCoord = playerCoords[0] + 20;
+				int yCoord = playerCoords[1] + 80;
+
+				int radius = LIGHT_RADIUS;
+				//check if the players inventory contains the torch
+				if (player.getHasTorch()) {
+					//alter y coordinate slightly so that torch is centred correctly
+					yCoord -= 15;
+					radius = TORCH_RADIUS;
 				}
+				//the light has always been measured 50 pixels below the darkness it uncovers
+				lightmap.addLight(xCoord, yCoord - 50, radius);
 			}
 		}
+		lightmap.draw(g);
 	}
 
 	/**
-	 * This method should return true if the two values x and
-	 * y are contained within a circle with a radius centred
-	 * on the point.
-	 * @param x x coord
-	 * @param y y coord
-	 * @param point centre of circle
-	 * @return true if point is inside circle, otherwise false
+	 * This method should return how dark the game should be drawn,
+	 * depending on the time of day.
+	 * @return alpha of the darkness, 0 - 255
 	 */
-	private boolean isPointInside(int x, int y, Player player) {
-		int[] playerCoords = calculatePlayerCoords(player);
-		int xCoord = playerCoords[0] + 20;
-		int yCoord = playerCoords[1] + 80;
-
-		int radius = 50;
-		//check if the players inventory contains the torch
-		if (player.getHasTorch()) {
-			//alter y coordinate slightly so that torch is centred correctly
-			yCoord -= 15;
-			radius = 120;
+	private int getDarknessAlpha() {
+		if (state == NIGHT_TIME) {
+			return 230;
+		} else if (state == DUSK) {
+			return (time - 39) * 9;
+		} else if (state == DAWN) {
+			return time*12;
 		}
-
-		//use the pythagorean theorem
-		int xDiff = Math.abs(xCoord - x);
-		int yDiff = Math.abs(yCoord - y);
-		double distance = Math.sqrt(xDiff * xDiff + yDiff * yDiff);
-		return distance <= radius;
+		return 0;
 	}
 
 	/**
 	 * This method should be called when the game panel is redrawn.
 	 * It should update the background colour of the game. The
 	 * background colour will vary depending on the time of day.
+	 * Only the sceneBackground field is set, because this may be
+	 * called by the render thread, which must not change the component.
 	 */
 	private void updateBackground() {
 		Color backgroundColour;
-		Color current = this.getBackground();
+		Color current = sceneBackground;
 		if (state == DAY_TIME) {
 			//day time
 			backgroundColour = new Color(120, 201, 255);
@@ -360,109 +421,70 @@ public class GameImagePanel extends JPanel {
 			backgroundColour = new Color(0, 0, 0, 230);
 		}
 		//update the background colour
-		this.setBackground(backgroundColour);
+		sceneBackground = backgroundColour;
 	}
 
 	public void drawNorthRoom(Graphics g){
-		if(viewDir.equals("north")){
-			if ((int) player.getCurrentRoom().getBoardPos().getX() != 0) {
-				Room northRoom = board.getRoomFromCoords((int)player.getCurrentRoom().getBoardPos().getX()-1,
-						(int)player.getCurrentRoom().getBoardPos().getY());
-				if(player.getVisitedRooms().contains(northRoom)){
-					BufferedImage ground = loadImage("ground.png");
-					g.drawImage(ground, gX-374, gY-176, null);
-					for (int i = 0; i < 10; i++){
-						for (int j = 9; j >= 0; j--){
-							if (northRoom.getObstacles()[i][j] != null){
-								if(northRoom.getObstacles()[i][j] instanceof Breakable){
-									drawDistantBreakable(g, northRoom.getObstacles()[i][j].getType(), j, i, -1);
-								}
-								else{
-									drawDistantObject(g, northRoom.getObstacles()[i][j].getType(), j, i, -1);
-								}
-							}
-							if (northRoom.getItems()[i][j] != null){
-								drawDistantObject(g, northRoom.getItems()[i][j].getType(), j, i, -1);
-							}
-						}
-					}
-				}
-			}
+		Room northRoom = getNeighbour(curRoom, viewDir, -1);
+		if (northRoom != null && player.hasVisited(northRoom)) {
+			drawNeighbour(g, northRoom, -1);
 		}
-		else if(viewDir.equals("east")){
-			if ((int) player.getCurrentRoom().getBoardPos().getY() != 0) {
-				Room northRoom = board.getRoomFromCoords((int)player.getCurrentRoom().getBoardPos().getX(),
-						(int)player.getCurrentRoom().getBoardPos().getY()-1);
-				if(player.getVisitedRooms().contains(northRoom)){
-					BufferedImage ground = loadImage("ground.png");
-					g.drawImage(ground, gX-374, gY-176, null);
-					for (int i = 0; i < 10; i++){
-						for (int j = 0; j < 10; j++){
-							if (northRoom.getObstacles()[i][j] != null){
-								if(northRoom.getObstacles()[i][j] instanceof Breakable){
-									drawDistantBreakable(g, northRoom.getObstacles()[i][j].getType(), 9-i, j, -1);
-								}
-								else{
-									drawDistantObject(g, northRoom.getObstacles()[i][j].getType(), 9-i, j, -1);
-								}
-							}
-							if (northRoom.getItems()[i][j] != null){
-								drawDistantObject(g, northRoom.getItems()[i][j].getType(), 9-i, j, -1);
-							}
-						}
-					}
-				}
-			}
+	}
+
+	/**
+	 * This method should draw a room that is behind the current room.
+	 * The whole room comes from the RoomLayerCache as one image, which
+	 * is only drawn again when something in the room changes.
+	 * @param g graphics that are doing the drawing
+	 * @param room the neighbouring room
+	 * @param SorE -1 for the room on the north side, 1 for the east side
+	 */
+	private void drawNeighbour(Graphics g, Room room, int SorE){
+		RoomLayerCache.getNeighbourLayer(this, room, viewDir, SorE).draw(g);
+	}
+
+	/**
+	 * This method should return the room that is drawn behind a room,
+	 * on either the north or the east side of the screen.
+	 * @param room the room that is in front
+	 * @param dir the direction the board is being viewed from
+	 * @param SorE -1 for the north side, 1 for the east side
+	 * @return the room behind, or null if it would be off the board
+	 */
+	public Room getNeighbour(Room room, ViewDirection dir, int SorE){
+		int row = (int)room.getBoardPos().getX() + dir.neighbourRowStep(SorE);
+		int col = (int)room.getBoardPos().getY() + dir.neighbourColStep(SorE);
+		if (row < 0 || row > 4 || col < 0 || col > 4) {
+			return null;
 		}
-		else if(viewDir.equals("south")){
-			if ((int) player.getCurrentRoom().getBoardPos().getX() != 4) {
-				Room northRoom = board.getRoomFromCoords((int)player.getCurrentRoom().getBoardPos().getX()+1,
-						(int)player.getCurrentRoom().getBoardPos().getY());
-				if(player.getVisitedRooms().contains(northRoom)){
-					BufferedImage ground = loadImage("ground.png");
-					g.drawImage(ground, gX-374, gY-176, null);
-					for (int i = 9; i >= 0; i--){
-						for (int j = 0; j < 10; j++){
-							if (northRoom.getObstacles()[i][j] != null){
-								if(northRoom.getObstacles()[i][j] instanceof Breakable){
-									drawDistantBreakable(g, northRoom.getObstacles()[i][j].getType(), 9-j, 9-i, -1);
-								}
-								else{
-									drawDistantObject(g, northRoom.getObstacles()[i][j].getType(), 9-j, 9-i, -1);
-								}
-							}
-							if (northRoom.getItems()[i][j] != null){
-								drawDistantObject(g, northRoom.getItems()[i][j].getType(), 9-j, 9-i, -1);
-							}
-						}
-					}
+		return board.getRoomFromCoords(row, col);
+	}
+
+	/**
+	 * This method should draw a neighbouring room into a layer for the
+	 * RoomLayerCache. The ground is drawn, then the obstacles and items
+	 * of every cell in drawing order. Neighbouring rooms are drawn with
+	 * less detail than the current room: water and fire don't animate.
+	 */
+	void paintNeighbour(Graphics g, Room room, ViewDirection dir, int SorE){
+		BufferedImage ground = loadImage("ground.png");
+		g.drawImage(ground, gX+(374*SorE), gY-176, null);
+		for (int k = 0; k < ROOM_CELLS; k++){
+			int i = dir.cellRow(k);
+			int j = dir.cellCol(k);
+			int x = dir.screenX(i, j);
+			int y = dir.screenY(i, j);
+			if (room.getObstacles()[i][j] != null){
+				if(room.getObstacles()[i][j] instanceof Breakable){
+					drawDistantBreakable(g, room.getObstacles()[i][j].getType(), x, y, SorE);
 				}
-			}
-		}
-		else if(viewDir.equals("west")){
-			if ((int) player.getCurrentRoom().getBoardPos().getY() != 4) {
-				Room northRoom = board.getRoomFromCoords((int)player.getCurrentRoom().getBoardPos().getX(),
-						(int)player.getCurrentRoom().getBoardPos().getY()+1);
-				if(player.getVisitedRooms().contains(northRoom)){
-					BufferedImage ground = loadImage("ground.png");
-					g.drawImage(ground, gX-374, gY-176, null);
-					for (int i = 9; i >= 0; i--){
-						for (int j = 9; j >= 0; j--){
-							if (northRoom.getObstacles()[i][j] != null){
-								if(northRoom.getObstacles()[i][j] instanceof Breakable){
-									drawDistantBreakable(g, northRoom.getObstacles()[i][j].getType(), i, 9-j, -1);
-								}
-								else{
-									drawDistantObject(g, northRoom.getObstacles()[i][j].getType(), i, 9-j, -1);
-								}
-							}
-							if (northRoom.getItems()[i][j] != null){
-								drawDistantObject(g, northRoom.getItems()[i][j].getType(), i, 9-j, -1);
-							}
-						}
-					}
+				else{
+					drawDistantObject(g, room.getObstacles()[i][j].getType(), x, y, SorE);
 				}
 			}
+			if (room.getItems()[i][j] != null){
+				drawDistantObject(g, room.getItems()[i][j].getType(), x, y, SorE);
+			}
 		}
 	}
 
@@ -479,8 +501,7 @@ public class GameImagePanel extends JPanel {
 		BufferedImage object;
 
 		if(file.contains("water")){
-			BufferedImage sheet = loadImage("waterSpriteSheet.png");
-			object = sheet.getSubimage(((waterState)%4)*70, ((waterState)/4)*34, 70, 34);
+			object = SpriteSheets.getWaterFrame(0);
 			newY+=40;
 		}
 		else{
@@ -490,30 +511,6 @@ public class GameImagePanel extends JPanel {
 	}
 
 	public void drawDistantBreakable(Graphics g, String file, int x, int y, int SorE){
-		BufferedImage breakablesIMG = loadImage("BreakablesSheet.png");
-		int subY = 0;
-		if(file.contains("cobblestone")){
-			subY = 0;
-		}
-		else if(file.contains("vine")){
-			subY = 1;
-		}
-		else if(file.contains("steelbeams")){
-			subY = 2;
-		}
-		else if (file.contains("dirt")) {
-			subY = 3;
-		}
-		else if (file.contains("fire")) {
-			subY = 4;
-		} else {
-			subY = 0;
-		}
-
-		int subX = Integer.valueOf(String.valueOf(file.charAt(file.length()-1))) - 1;
-
-		//System.out.println(subX + " | " + subY);
-
 		int newX = 374*SorE;
 		int newY = -176;
 
@@ -523,363 +520,137 @@ public class GameImagePanel extends JPanel {
 		newX = newX + (obW*y);
 		newY = newY + gY + obY + (obH*y);
 
-		if (subY == 4) {
-			subY = subY + fireState;
-		}
-
-		g.drawImage(breakablesIMG.getSubimage(subX*70, subY*72, 70, 72), newX, newY, null);
+		g.drawImage(getBreakableImage(file, 0), newX, newY, null);
 	}
 
 	public void drawEastRoom(Graphics g){
-		if(viewDir.equals("north")){
-			if((int)player.getCurrentRoom().getBoardPos().getY() != 4){
-				Room eastRoom = board.getRoomFromCoords((int)player.getCurrentRoom().getBoardPos().getX(),
-						(int)player.getCurrentRoom().getBoardPos().getY()+1);
-				if(player.getVisitedRooms().contains(eastRoom)){
-					BufferedImage ground = loadImage("ground.png");
-					g.drawImage(ground, gX+374, gY-176, null);
-					for (int i = 0; i < 10; i++){
-						for (int j = 9; j >= 0; j--){
-							if (eastRoom.getObstacles()[i][j] != null){
-								if(eastRoom.getObstacles()[i][j] instanceof Breakable){
-									drawDistantBreakable(g, eastRoom.getObstacles()[i][j].getType(), j, i, 1);
-								}
-								else{
-									drawDistantObject(g, eastRoom.getObstacles()[i][j].getType(), j, i, 1);
-								}
-							}
-							if (eastRoom.getItems()[i][j] != null){
-								drawDistantObject(g, eastRoom.getItems()[i][j].getType(), j, i, 1);
-							}
-						}
-					}
-				}
-			}
-		}
-		else if(viewDir.equals("east")){
-			if((int)player.getCurrentRoom().getBoardPos().getX() != 0){
-				Room eastRoom = board.getRoomFromCoords((int)player.getCurrentRoom().getBoardPos().getX() - 1,
-						(int)player.getCurrentRoom().getBoardPos().getY());
-				if(player.getVisitedRooms().contains(eastRoom)){
-					BufferedImage ground = loadImage("ground.png");
-					g.drawImage(ground, gX+374, gY-176, null);
-					for (int i = 0; i < 10; i++){
-						for (int j = 0; j < 10; j++){
-							if (eastRoom.getObstacles()[i][j] != null){
-								if(eastRoom.getObstacles()[i][j] instanceof Breakable){
-									drawDistantBreakable(g, eastRoom.getObstacles()[i][j].getType(), 9-i, j, 1);
-								}
-								else{
-									drawDistantObject(g, eastRoom.getObstacles()[i][j].getType(), 9-i, j, 1);
-								}
-							}
-							if (eastRoom.getItems()[i][j] != null){
-								drawDistantObject(g, eastRoom.getItems()[i][j].getType(), 9-i, j, 1);
-							}
-						}
-					}
-				}
-			}
-		}
-		else if(viewDir.equals("south")){
-			if((int)player.getCurrentRoom().getBoardPos().getY() != 0){
-				Room eastRoom = board.getRoomFromCoords((int)player.getCurrentRoom().getBoardPos().getX(),
-						(int)player.getCurrentRoom().getBoardPos().getY()-1);
-				if(player.getVisitedRooms().contains(eastRoom)){
-					BufferedImage ground = loadImage("ground.png");
-					g.drawImage(ground, gX+374, gY-176, null);
-					for (int i = 9; i >= 0; i--){
-						for (int j = 0; j < 10; j++){
-							if (eastRoom.getObstacles()[i][j] != null){
-								if(eastRoom.getObstacles()[i][j] instanceof Breakable){
-									drawDistantBreakable(g, eastRoom.getObstacles()[i][j].getType(), 9-j, 9-i, 1);
-								}
-								else{
-									drawDistantObject(g, eastRoom.getObstacles()[i][j].getType(), 9-j, 9-i, 1);
-								}
-							}
-							if (eastRoom.getItems()[i][j] != null){
-								drawDistantObject(g, eastRoom.getItems()[i][j].getType(), 9-i, 9-i, 1);
-							}
-						}
-					}
-				}
-			}
-		}
-		else if(viewDir.equals("west")){
-			if((int)player.getCurrentRoom().getBoardPos().getX() != 4){
-				Room eastRoom = board.getRoomFromCoords((int)player.getCurrentRoom().getBoardPos().getX()+1,
-						(int)player.getCurrentRoom().getBoardPos().getY());
-				if(player.getVisitedRooms().contains(eastRoom)){
-					BufferedImage ground = loadImage("ground.png");
-					g.drawImage(ground, gX+374, gY-176, null);
-					for (int i = 9; i >= 0; i--){
-						for (int j = 9; j >= 0; j--){
-							if (eastRoom.getObstacles()[i][j] != null){
-								if(eastRoom.getObstacles()[i][j] instanceof Breakable){
-									drawDistantBreakable(g, eastRoom.getObstacles()[i][j].getType(), i, 9-j, 1);
-								}
-								else{
-									drawDistantObject(g, eastRoom.getObstacles()[i][j].getType(), i, 9-j, 1);
-								}
-							}
-							if (eastRoom.getItems()[i][j] != null){
-								drawDistantObject(g, eastRoom.getItems()[i][j].getType(), i, 9-j, 1);
-							}
-						}
-					}
-				}
-			}
+		Room eastRoom = getNeighbour(curRoom, viewDir, 1);
+		if (eastRoom != null && player.hasVisited(eastRoom)) {
+			drawNeighbour(g, eastRoom, 1);
 		}
 	}
 
-	public void drawGround(Graphics g){
+	/**
+	 * This method should draw the walls, ground and doorway stones of
+	 * the current room. These come from the RoomLayerCache.
+	 * @param g graphics that are doing the drawing
+	 */
+	public void drawFrame(Graphics g){
+		RoomLayerCache.getFrameLayer(this, curRoom, viewDir).draw(g);
+	}
+
+	/**
+	 * This method should draw the walls, ground and doorway stones of
+	 * a room into a layer for the RoomLayerCache.
+	 */
+	void paintFrame(Graphics g, Room room, ViewDirection dir){
+		drawNorthWall(g, room, dir);
+		drawEastWall(g, room, dir);
+		drawGround(g, room, dir);
+	}
+
+	public void drawGround(Graphics g, Room room, ViewDirection dir){
 		BufferedImage ground = loadImage("ground.png");
 		g.drawImage(ground, gX, gY, null);
 		BufferedImage stone = loadImage("stoneblock.png");
-		if(viewDir.equals("north")){
-			if(curRoom.getWest() != -1){
-				g.drawImage(stone, 302, 404, null);
-				g.drawImage(stone, 302+obW, 404+obH, null);
-			}
-			if(curRoom.getSouth() != -1){
-				g.drawImage(stone, 710, 404, null);
-				g.drawImage(stone, 710-obW, 404+obH, null);
-			}
-		}
-		else if(viewDir.equals("east")){
-			if(curRoom.getSouth() != -1){
-				g.drawImage(stone, 302, 404, null);
-				g.drawImage(stone, 302+obW, 404+obH, null);
-			}
-			if(curRoom.getEast() != -1){
-				g.drawImage(stone, 710, 404, null);
-				g.drawImage(stone, 710-obW, 404+obH, null);
-			}
-		}
-		else if(viewDir.equals("south")){
-			if(curRoom.getEast() != -1){
-				g.drawImage(stone, 302, 404, null);
-				g.drawImage(stone, 302+obW, 404+obH, null);
-			}
-			if(curRoom.getNorth() != -1){
-				g.drawImage(stone, 710, 404, null);
-				g.drawImage(stone, 710-obW, 404+obH, null);
-			}
+		if(dir.hasLeftStones(room)){
+			g.drawImage(stone, 302, 404, null);
+			g.drawImage(stone, 302+obW, 404+obH, null);
 		}
-		else if(viewDir.equals("west")){
-			if(curRoom.getNorth() != -1){
-				g.drawImage(stone, 302, 404, null);
-				g.drawImage(stone, 302+obW, 404+obH, null);
-			}
-			if(curRoom.getWest() != -1){
-				g.drawImage(stone, 710, 404, null);
-				g.drawImage(stone, 710-obW, 404+obH, null);
-			}
+		if(dir.hasRightStones(room)){
+			g.drawImage(stone, 710, 404, null);
+			g.drawImage(stone, 710-obW, 404+obH, null);
 		}
 	}
 
 	/*
-	 * Draws all obstacles in current room
+	 * Draws all obstacles, items, NPCs and players in current room
 	 *
-	 * -Loops through the obstacles array stored in the current room
-	 * -Loops from back to front so that all obstacles are displayed correctly
-	 * -Calls the drawObject() method to draw each obstacle
+	 * -Builds the draw list, which buckets the players and NPCs by the cell they are on
+	 * -Loops through the cells from back to front so that everything is displayed correctly
+	 * -Draws each cell's obstacle and item, then the players and NPCs standing on it
 	 */
 	public void drawBoard(Graphics g){
-		if(viewDir.equals("north")){
-			for (int i = 0; i < 10; i++){
-				for (int j = 9; j >= 0; j--){
-					if (curRoom.getObstacles()[i][j] != null){
-						if(curRoom.getObstacles()[i][j] instanceof Breakable){
-							drawBreakable(g, curRoom.getObstacles()[i][j].getType(), j, i);
-						}
-						else{
-							drawObject(g, curRoom.getObstacles()[i][j].getType(), j, i);
-						}
-					}
-					if (curRoom.getItems()[i][j] != null){
-						drawObject(g, curRoom.getItems()[i][j].getType(), j, i);
-					}
-
-					for(Player p : board.getPlayers()){
-						if(p != null && p != player && p.getCurrentRoom() == player.getCurrentRoom()){
-							try{
-								if (p.getCurrentRoom().calcTile(p.getCoords()).getRoomCoords().equals(new Point(i, j))){
-									drawOtherPlayer(g, p);
-								}
-							}
-							catch(NullPointerException e){
-								System.out.println("Error drawing other player");
-							}
-						}
-					}
-					drawPlayersAndNPCs(g, i, j);
+		buildDrawList();
+		Tile playerTile = player.getCurrentTile();
+		for (int k = 0; k < ROOM_CELLS; k++){
+			int i = viewDir.cellRow(k);
+			int j = viewDir.cellCol(k);
+			int x = viewDir.screenX(i, j);
+			int y = viewDir.screenY(i, j);
+			if (curRoom.getObstacles()[i][j] != null){
+				if(curRoom.getObstacles()[i][j] instanceof Breakable){
+					drawBreakable(g, curRoom.getObstacles()[i][j].getType(), x, y);
 				}
-			}
-		}
-		else if(viewDir.equals("east")){
-			for (int i = 0; i < 10; i++){
-				for (int j = 0; j < 10; j++){
-					if (curRoom.getObstacles()[i][j] != null){
-						if(curRoom.getObstacles()[i][j] instanceof Breakable){
-							drawBreakable(g, curRoom.getObstacles()[i][j].getType(), 9-i, j);
-						}
-						else{
-							drawObject(g, curRoom.getObstacles()[i][j].getType(), 9-i, j);
-						}
-					}
-					if (curRoom.getItems()[i][j] != null){
-						drawObject(g, curRoom.getItems()[i][j].getType(), 9-i, j);
-					}
-					for(Player p : board.getPlayers()){
-						if(p != null && p != player && p.getCurrentRoom() == player.getCurrentRoom()){
-							try{
-								if (p.getCurrentRoom().calcTile(p.getCoords()).getRoomCoords().equals(new Point(i, j))){
-									drawOtherPlayer(g, p);
-								}
-							}
-							catch(NullPointerException e){
-								System.out.println("Error drawing other player");
-							}
-						}
-					}
-					drawPlayersAndNPCs(g, i, j);
+				else{
+					drawObject(g, curRoom.getObstacles()[i][j].getType(), x, y);
 				}
 			}
-		}
-		else if(viewDir.equals("south")){
-			for (int i = 9; i >= 0; i--){
-				for (int j = 0; j < 10; j++){
-					if (curRoom.getObstacles()[i][j] != null){
-						if(curRoom.getObstacles()[i][j] instanceof Breakable){
-							drawBreakable(g, curRoom.getObstacles()[i][j].getType(), 9-j, 9-i);
-						}
-						else{
-							drawObject(g, curRoom.getObstacles()[i][j].getType(), 9-j, 9-i);
-						}
-					}
-					if (curRoom.getItems()[i][j] != null){
-						drawObject(g, curRoom.getItems()[i][j].getType(), 9-j, 9-i);
-					}
-					for(Player p : board.getPlayers()){
-						if(p != null && p != player && p.getCurrentRoom() == player.getCurrentRoom()){
-							try{
-								if (p.getCurrentRoom().calcTile(p.getCoords()).getRoomCoords().equals(new Point(i, j))){
-									drawOtherPlayer(g, p);
-								}
-							}
-							catch(NullPointerException e){
-								System.out.println("Error drawing other player");
-							}
-						}
-					}
-					drawPlayersAndNPCs(g, i, j);
-				}
+			if (curRoom.getItems()[i][j] != null){
+				drawObject(g, curRoom.getItems()[i][j].getType(), x, y);
 			}
-		}
-		else if(viewDir.equals("west")){
-			for (int i = 9; i >= 0; i--){
-				for (int j = 9; j >= 0; j--){
-					if (curRoom.getObstacles()[i][j] != null){
-						if(curRoom.getObstacles()[i][j] instanceof Breakable){
-							drawBreakable(g, curRoom.getObstacles()[i][j].getType(), i, 9-j);
-						}
-						else{
-							drawObject(g, curRoom.getObstacles()[i][j].getType(), i, 9-j);
-						}
-					}
-					for(Player p : board.getPlayers()){
-						if(p != null && p != player && p.getCurrentRoom() == player.getCurrentRoom()){
-							try{
-								if (p.getCurrentRoom().calcTile(p.getCoords()).getRoomCoords().equals(new Point(i, j))){
-									drawOtherPlayer(g, p);
-								}
-							}
-							catch(NullPointerException e){
-								System.out.println("Error drawing other player");
-							}
-						}
-					}
-					if (curRoom.getItems()[i][j] != null){
-						drawObject(g, curRoom.getItems()[i][j].getType(), i, 9-j);
-					}
-					drawPlayersAndNPCs(g, i, j);
-				}
+			for (int e = drawList.firstPlayer(i, j); e != EntityDrawList.NONE; e = drawList.nextPlayer(e)){
+				drawOtherPlayer(g, drawList.getPlayer(e));
+			}
+			for (int e = drawList.firstNpc(i, j); e != EntityDrawList.NONE; e = drawList.nextNpc(e)){
+				drawEnemy(g, drawList.getNpc(e));
+			}
+			if (!hurt && playerTile != null
+					&& playerTile.getRoomCoords().x == i && playerTile.getRoomCoords().y == j){
+				drawPlayer(g);
 			}
 		}
 	}
 
 	/**
-	 * This method should draw the current room's NPC's
-	 * and players onto the board at the given coordinates.
-	 * @param g
-	 * @param i
-	 * @param j
+	 * This method should fill the draw list with the other players
+	 * and the NPCs in the current room, each in the cell it is on.
 	 */
-	private void drawPlayersAndNPCs(Graphics g, int i, int j) {
-		for (NPC npc : curRoom.getNpcs()){
-			if(npc != null && npc.getCurrentTile() != null){
-				if (npc.getCurrentTile().getRoomCoords().equals(new Point(i, j))){
-					drawEnemy(g, npc);
+	private void buildDrawList() {
+		drawList.clear();
+		for(Player p : board.getPlayers()){
+			if(p != null && p != player && p.getCurrentRoom() == curRoom){
+				Tile tile = p.getCurrentTile();
+				if (tile == null) {
+					tile = curRoom.calcTile(p.getCoords());
+				}
+				if (tile != null) {
+					drawList.addPlayer(p, tile.getRoomCoords().x, tile.getRoomCoords().y);
 				}
 			}
 		}
-		if (player != null && !hurt && player.getCurrentTile() != null){
-			if (player.getCurrentTile().getRoomCoords().equals(new Point(i, j))){
-				drawPlayer(g);
+		for (NPC npc : curRoom.getNpcs()){
+			if(npc != null && npc.getCurrentTile() != null){
+				Point coords = npc.getCurrentTile().getRoomCoords();
+				drawList.addNpc(npc, coords.x, coords.y);
 			}
 		}
 	}
 
 	public BufferedImage loadEnemyImage(String type, int dir, int state){
-		BufferedImage sheet = loadImage(type + "SpriteSheet.png");
-		BufferedImage enemyImage;
-		if(viewDir.equals("east")){
-			dir = (dir+=1)%4;
-		}
-		else if(viewDir.equals("south")){
-			dir = (dir+=2)%4;
-		}
-		else if(viewDir.equals("west")){
-			dir = (dir+=3)%4;
-		}
-		enemyImage = sheet.getSubimage(dir*70, (state/5)*72, 70, 72);
-		return enemyImage;
+		return SpriteSheets.getEnemyFrame(type, viewDir.toScreen(dir), state);
 	}
 
 	public void drawEnemy(Graphics g, NPC npc){
-		int xDif = (int)(npc.getRealCoords().getX() - npc.getCurrentTile().getRealCoords().getX());
-		int yDif = (int)(npc.getRealCoords().getY() - npc.getCurrentTile().getRealCoords().getY());
-		int newX = (int)npc.getRealCoords().getX() - (obW);
-		int newY = (int)npc.getRealCoords().getY() - (obH*2)-22;
+		Point coords = entityCoords(npc, npc.getRealCoords());
+		int xDif = (int)(coords.getX() - npc.getCurrentTile().getRealCoords().getX());
+		int yDif = (int)(coords.getY() - npc.getCurrentTile().getRealCoords().getY());
 		Point oldPoint = npc.getCurrentTile().getRoomCoords();
-
-		if(viewDir.equals("east")){
-			Point newPoint = new Point((int)(oldPoint.getY()), 9-(int)oldPoint.getX());
-			Tile newTile = curRoom.getTileFromRoomCoords(newPoint);
-			newX = (int)newTile.getRealCoords().getX() - obW - (yDif*2);
-			newY = (int)newTile.getRealCoords().getY() - ((obH*2)-22) - (-xDif/2)-(obH*3)+4;
-		}
-		else if(viewDir.equals("south")){
-			Point newPoint = new Point((int)(9-oldPoint.getX()), 9-(int)oldPoint.getY());
-			Tile newTile = curRoom.getTileFromRoomCoords(newPoint);
-			newX = (int)newTile.getRealCoords().getX() - obW - (xDif);
-			newY = (int)newTile.getRealCoords().getY() - ((obH*2)-22) - (yDif)-(obH*3)+4;
-		}
-		else if(viewDir.equals("west")){
-			Point newPoint = new Point((int)(9-oldPoint.getY()), (int)oldPoint.getX());
-			Tile newTile = curRoom.getTileFromRoomCoords(newPoint);
-			newX = (int)newTile.getRealCoords().getX() - obW - (-yDif*2);
-			newY = (int)newTile.getRealCoords().getY() - ((obH*2)-22) - (xDif/2)-(obH*3)+4;
-		}
+		Point tileCoords = rotatedTile(oldPoint).getRealCoords();
+		int newX = (int)tileCoords.getX() - obW + viewDir.offsetX(xDif, yDif);
+		int newY = (int)tileCoords.getY() - (obH*2)-22 + viewDir.offsetY(xDif, yDif);
 
 		BufferedImage enemyIMG;
 		if(npc instanceof EnemyStill){
 			enemyIMG = loadImage(npc.getType() + ".png");
 		}
 		else if(npc instanceof EnemyWalker){
-			enemyIMG = loadEnemyImage(npc.getType(), npc.getDir(), npc.getAnimationState());
+			int animationState = npc.getAnimationState();
+			if (npc.getType().equals("bats")) {
+				//bats are always flapping, even when they aren't moving
+				animationState = animationClock.getWalkerState();
+			}
+			enemyIMG = loadEnemyImage(npc.getType(), npc.getDir(), animationState);
 		}
 		else if(npc.getType().contains("fladnag")){
 			enemyIMG = loadImage(npc.getType() + ".png");
@@ -914,33 +685,41 @@ public class GameImagePanel extends JPanel {
 		drawHealth(g, newX, newY, player);
 	}
 
+	/**
+	 * This method should return the position a player or NPC should
+	 * be drawn at. With active rendering on, this is part of the way
+	 * between where it was at the last two ticks.
+	 * @param entity the player or NPC
+	 * @param coords where the entity is now
+	 * @return the position to draw the entity at
+	 */
+	private Point entityCoords(Object entity, Point coords) {
+		if (interpolating && TickInterpolator.interpolate(entity, alpha, drawCoords)) {
+			return drawCoords;
+		}
+		return coords;
+	}
+
+	/**
+	 * This method should return the tile of the current room that a
+	 * room cell is drawn over, once the room is rotated to the view direction.
+	 * @param roomCoords row and column of the cell
+	 */
+	private Tile rotatedTile(Point roomCoords){
+		int row = roomCoords.x;
+		int col = roomCoords.y;
+		return curRoom.getTiles()[viewDir.screenY(row, col)][viewDir.screenX(row, col)];
+	}
+
 	private int[] calculatePlayerCoords(Player player) {
 		try{
-			int xDif = (int)(player.getCoords().getX() - player.getCurrentTile().getRealCoords().getX());
-			int yDif = (int)(player.getCoords().getY() - player.getCurrentTile().getRealCoords().getY());
-			int newX = (int)player.getCoords().getX() - 25;
-			int newY = (int)player.getCoords().getY() - 80;
+			Point coords = entityCoords(player, player.getCoords());
+			int xDif = (int)(coords.getX() - player.getCurrentTile().getRealCoords().getX());
+			int yDif = (int)(coords.getY() - player.getCurrentTile().getRealCoords().getY());
 			Point oldPoint = player.getCurrentTile().getRoomCoords();
-
-			//if the view direction is north, we don't need to change anything
-			if(viewDir.equals("east")){
-				Point newPoint = new Point((int)(oldPoint.getY()), 9-(int)oldPoint.getX());
-				Tile newTile = curRoom.getTileFromRoomCoords(newPoint);
-				newX = (int)newTile.getRealCoords().getX() - 25 - (yDif*2);
-				newY = (int)newTile.getRealCoords().getY() - 80 - (-xDif/2);
-			}
-			else if(viewDir.equals("south")){
-				Point newPoint = new Point((int)(9-oldPoint.getX()), 9-(int)oldPoint.getY());
-				Tile newTile = curRoom.getTileFromRoomCoords(newPoint);
-				newX = (int)newTile.getRealCoords().getX() - 25 - (xDif);
-				newY = (int)newTile.getRealCoords().getY() - 80 - (yDif);
-			}
-			else if(viewDir.equals("west")){
-				Point newPoint = new Point((int)(9-oldPoint.getY()), (int)oldPoint.getX());
-				Tile newTile = curRoom.getTileFromRoomCoords(newPoint);
-				newX = (int)newTile.getRealCoords().getX() - 25 - (-yDif*2);
-				newY = (int)newTile.getRealCoords().getY() - 80 - (xDif/2);
-			}
+			Point tileCoords = rotatedTile(oldPoint).getRealCoords();
+			int newX = (int)tileCoords.getX() - 25 + viewDir.offsetX(xDif, yDif);
+			int newY = (int)tileCoords.getY() - 80 + viewDir.offsetY(xDif, yDif);
 			int[] newCoords = {newX, newY};
 			return newCoords;
 		}
@@ -989,69 +768,24 @@ public class GameImagePanel extends JPanel {
 		g.drawString("Score: "+score, 22, 557);
 	}
 
-	public void drawNorthWall(Graphics g){
+	public void drawNorthWall(Graphics g, Room room, ViewDirection dir){
 		BufferedImage wall = loadImage("NorthTreesDoor.png");
-		if(viewDir.equals("north")){
-			if(curRoom.getNorth() == -1){
-				wall = loadImage("NorthTrees.png");
-			}
-		}
-		else if(viewDir.equals("east")){
-			if(curRoom.getWest() == -1){
-				wall = loadImage("NorthTrees.png");
-			}
-		}
-		else if(viewDir.equals("south")){
-			if(curRoom.getSouth() == -1){
-				wall = loadImage("NorthTrees.png");
-			}
-		}
-		else if(viewDir.equals("west")){
-			if(curRoom.getEast() == -1){
-				wall = loadImage("NorthTrees.png");
-			}
+		if(!dir.hasNorthWallExit(room)){
+			wall = loadImage("NorthTrees.png");
 		}
 		g.drawImage(wall, wnX, wnY, null);
 	}
 
-	public void drawEastWall(Graphics g){
+	public void drawEastWall(Graphics g, Room room, ViewDirection dir){
 		BufferedImage wall = loadImage("EastTreesDoor.png");
-		if(viewDir.equals("north")){
-			if(curRoom.getEast() == -1){
-				wall = loadImage("EastTrees.png");
-			}
-		}
-		else if(viewDir.equals("east")){
-			if(curRoom.getNorth() == -1){
-				wall = loadImage("EastTrees.png");
-			}
-		}
-		else if(viewDir.equals("south")){
-			if(curRoom.getWest() == -1){
-				wall = loadImage("EastTrees.png");
-			}
-		}
-		else if(viewDir.equals("west")){
-			if(curRoom.getSouth() == -1){
-				wall = loadImage("EastTrees.png");
-			}
+		if(!dir.hasEastWallExit(room)){
+			wall = loadImage("EastTrees.png");
 		}
 		g.drawImage(wall, weX, weY, null);
 	}
 
 	public void drawCompass(Graphics g){
-		BufferedImage sheet = loadImage("compassSpriteSheet.png");
-		BufferedImage compass = sheet.getSubimage(0, 0, 76, 50);
-		if(viewDir.equals("east")){
-			compass = sheet.getSubimage(76, 0, 76, 50);
-		}
-		else if(viewDir.equals("south")){
-			compass = sheet.getSubimage(152, 0, 76, 50);
-		}
-		else if(viewDir.equals("west")){
-			compass = sheet.getSubimage(228, 0, 76, 50);
-		}
-		g.drawImage(compass, cX, cY, null);
+		g.drawImage(SpriteSheets.getCompassFrame(viewDir.ordinal()), cX, cY, null);
 	}
 
 	public void drawCharacter(Graphics g, String file, int x, int y){
@@ -1064,13 +798,8 @@ public class GameImagePanel extends JPanel {
 		newX = newX + (charW*y);
 		newY = newY + gY + charY + (charH*y);
 
-		BufferedImage character;
-		try {
-			character = ImageIO.read(new File("data/images/" + file + ".png"));
-			g.drawImage(character, newX, newY, null);
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		BufferedImage character = loadImage(file + ".png");
+		g.drawImage(character, newX, newY, null);
 	}
 
 	/*
@@ -1093,8 +822,7 @@ public class GameImagePanel extends JPanel {
 		BufferedImage object;
 
 		if(file.contains("water")){
-			BufferedImage sheet = loadImage("waterSpriteSheet.png");
-			object = sheet.getSubimage(((waterState)%4)*70, ((waterState)/4)*34, 70, 34);
+			object = SpriteSheets.getWaterFrame(waterState);
 			newY+=40;
 		}
 		else{
@@ -1104,7 +832,27 @@ public class GameImagePanel extends JPanel {
 	}
 
 	public void drawBreakable(Graphics g, String file, int x, int y){
-		BufferedImage breakablesIMG = loadImage("BreakablesSheet.png");
+		int newX = 0;
+		int newY = 0;
+
+		newX = newX + gX + obX + (obW*x);
+		newY = newY - (obH*x);
+
+		newX = newX + (obW*y);
+		newY = newY + gY + obY + (obH*y);
+
+		g.drawImage(getBreakableImage(file, fireState), newX, newY, null);
+	}
+
+	/**
+	 * Gets the frame of the breakables sheet for a breakable obstacle.
+	 * The type decides the row, and the last digit of the type decides the stage.
+	 * Fire uses the given fire state to pick its row.
+	 * @param file the type of the breakable, eg "vine2"
+	 * @param fireFrame frame of the fire animation
+	 * @return the frame to draw
+	 */
+	private BufferedImage getBreakableImage(String file, int fireFrame){
 		int subY = 0;
 		if(file.contains("cobblestone")){
 			subY = 0;
@@ -1119,29 +867,11 @@ public class GameImagePanel extends JPanel {
 			subY = 3;
 		}
 		else if (file.contains("fire")) {
-			subY = 4;
-		} else {
-			subY = 0;
-		}
-
-		int subX = Integer.valueOf(String.valueOf(file.charAt(file.length()-1))) - 1;
-
-		//System.out.println(subX + " | " + subY);
-
-		int newX = 0;
-		int newY = 0;
-
-		newX = newX + gX + obX + (obW*x);
-		newY = newY - (obH*x);
-
-		newX = newX + (obW*y);
-		newY = newY + gY + obY + (obH*y);
-
-		if (subY == 4) {
-			subY = subY + fireState;
+			subY = 4 + fireFrame;
 		}
 
-		g.drawImage(breakablesIMG.getSubimage(subX*70, subY*72, 70, 72), newX, newY, null);
+		int subX = Character.digit(file.charAt(file.length()-1), 10) - 1;
+		return SpriteSheets.getBreakableFrame(subY, subX);
 	}
 
 	public static Point calcRealCoords(Point p){
@@ -1156,146 +886,62 @@ public class GameImagePanel extends JPanel {
 		return new Point(newX+tileW, newY+tileH);
 	}
 
+	/**
+	 * This method should do the opposite of calcRealCoords, and work
+	 * out the room row of a point in the game window. Whole numbers
+	 * are the middles of tiles.
+	 * @param x of the point relative to the game window
+	 * @param y of the point relative to the game window
+	 * @return room row of the point
+	 */
+	public static double calcRoomRow(int x, int y){
+		//each row moves a tile across and down, and each column moves a tile across and up
+		return (rowPlusCol(x) + rowMinusCol(y))/2;
+	}
+
+	/**
+	 * This method should work out the room column of a point in the game window
+	 * @see #calcRoomRow(int, int)
+	 */
+	public static double calcRoomCol(int x, int y){
+		return (rowPlusCol(x) - rowMinusCol(y))/2;
+	}
+
+	private static double rowPlusCol(int x){
+		return (double)(x - gX - tileX - tileW) / tileW;
+	}
+
+	private static double rowMinusCol(int y){
+		return (double)(y - gY - tileY - tileH) / tileH;
+	}
+
 	/**
 	 * This method should load an image in from a filename.
+	 * Images are decoded once and then shared through the SpriteCache,
+	 * so the returned image should not be drawn on.
 	 * @param filename
-	 * @return
+	 * @return the image, or the default cube if it cannot be found
 	 */
 	public BufferedImage loadImage(String filename) {
-		// using the URL means the image loads when stored
-		// in a jar or expanded into individual files.
-		try {
-			BufferedImage img = ImageIO.read(new File(IMAGE_PATH + filename));
-			return img;
-		} catch (IOException e) {
-			// we've encountered an error loading the image. There's not much we
-			// can actually do at this point, except to abort the game.
-			return defaultCube;
-		}
+		return SpriteCache.getImage(filename);
 	}
 
 	public BufferedImage getOtherPlayerImage(Player player){
-		BufferedImage sheet = loadImage("otherSpriteSheetWalking.png");
-		BufferedImage playerImage = playerOtherIMG;
-		if(player.isNorth()){
-			if(player.isEast() && player.isWest()){
-				playerImage = sheet.getSubimage(0, 82*player.getWalkState(), 50, 82);
-			}
-			else if(player.isWest()){
-				playerImage = sheet.getSubimage(50, 82*player.getWalkState(), 50, 82);
-			}
-			else if(player.isEast()){
-				playerImage = sheet.getSubimage(350, 82*player.getWalkState(), 50, 82);
-			}
-			else{
-				playerImage = sheet.getSubimage(0, 82*player.getWalkState(), 50, 82);
-			}
-		}
-		else if(player.isEast()){
-			if(player.isNorth() && player.isSouth()){
-				playerImage = sheet.getSubimage(300, 82*player.getWalkState(), 50, 82);
-			}
-			else if(player.isNorth()){
-				playerImage = sheet.getSubimage(350, 82*player.getWalkState(), 50, 82);
-			}
-			else if(player.isSouth()){
-				playerImage = sheet.getSubimage(250, 82*player.getWalkState(), 50, 82);
-			}
-			else{
-				playerImage = sheet.getSubimage(300, 82*player.getWalkState(), 50, 82);
-			}
-		}
-		else if(player.isSouth()){
-			if(player.isEast() && player.isWest()){
-				playerImage = sheet.getSubimage(200, 82*player.getWalkState(), 50, 82);
-			}
-			else if(player.isWest()){
-				playerImage = sheet.getSubimage(150, 82*player.getWalkState(), 50, 82);
-			}
-			else if(player.isEast()){
-				playerImage = sheet.getSubimage(250, 82*player.getWalkState(), 50, 82);
-			}
-			else{
-				playerImage = sheet.getSubimage(200, 82*player.getWalkState(), 50, 82);
-			}
-		}
-		else if(player.isWest()){
-			if(player.isNorth() && player.isSouth()){
-				playerImage = sheet.getSubimage(100, 82*player.getWalkState(), 50, 82);
-			}
-			else if(player.isNorth()){
-				playerImage = sheet.getSubimage(50, 82*player.getWalkState(), 50, 82);
-			}
-			else if(player.isSouth()){
-				playerImage = sheet.getSubimage(150, 82*player.getWalkState(), 50, 82);
-			}
-			else{
-				playerImage = sheet.getSubimage(100, 82*player.getWalkState(), 50, 82);
-			}
+		int dirBits = SpriteSheets.directionBits(player.isNorth(), player.isEast(), player.isSouth(), player.isWest());
+		BufferedImage playerImage = SpriteSheets.getOtherPlayerFrame(dirBits, player.getWalkState());
+		if (playerImage == null) {
+			//other player is standing still
+			return playerOtherIMG;
 		}
 		return playerImage;
 	}
 
 	public void updatePlayerImage(){
-		BufferedImage sheet = loadImage("playerSpriteSheetWalking.png");
-		BufferedImage playerImage = playerIMG;
-		if(north){
-			if(east && west){
-				playerImage = sheet.getSubimage(0, 82*player.getWalkState(), 50, 82);
-			}
-			else if(west){
-				playerImage = sheet.getSubimage(50, 82*player.getWalkState(), 50, 82);
-			}
-			else if(east){
-				playerImage = sheet.getSubimage(350, 82*player.getWalkState(), 50, 82);
-			}
-			else{
-				playerImage = sheet.getSubimage(0, 82*player.getWalkState(), 50, 82);
-			}
-		}
-		else if(east){
-			if(north && south){
-				playerImage = sheet.getSubimage(300, 82*player.getWalkState(), 50, 82);
-			}
-			else if(north){
-				playerImage = sheet.getSubimage(350, 82*player.getWalkState(), 50, 82);
-			}
-			else if(south){
-				playerImage = sheet.getSubimage(250, 82*player.getWalkState(), 50, 82);
-			}
-			else{
-				playerImage = sheet.getSubimage(300, 82*player.getWalkState(), 50, 82);
-			}
-		}
-		else if(south){
-			if(east && west){
-				playerImage = sheet.getSubimage(200, 82*player.getWalkState(), 50, 82);
-			}
-			else if(west){
-				playerImage = sheet.getSubimage(150, 82*player.getWalkState(), 50, 82);
-			}
-			else if(east){
-				playerImage = sheet.getSubimage(250, 82*player.getWalkState(), 50, 82);
-			}
-			else{
-				playerImage = sheet.getSubimage(200, 82*player.getWalkState(), 50, 82);
-			}
-		}
-		else if(west){
-			if(north && south){
-				playerImage = sheet.getSubimage(100, 82*player.getWalkState(), 50, 82);
-			}
-			else if(north){
-				playerImage = sheet.getSubimage(50, 82*player.getWalkState(), 50, 82);
-			}
-			else if(south){
-				playerImage = sheet.getSubimage(150, 82*player.getWalkState(), 50, 82);
-			}
-			else{
-				playerImage = sheet.getSubimage(100, 82*player.getWalkState(), 50, 82);
-			}
+		int dirBits = SpriteSheets.directionBits(north, east, south, west);
+		BufferedImage playerImage = SpriteSheets.getPlayerFrame(dirBits, player.getWalkState());
+		if (playerImage != null) {
+			playerIMG = playerImage;
 		}
-		playerIMG = playerImage;
 	}
 
 	public Board getBoard(){
@@ -1307,9 +953,17 @@ public class GameImagePanel extends JPanel {
 	}
 
 	public void setViewDir(String dir){
+		this.viewDir = ViewDirection.fromName(dir);
+	}
+
+	public void setViewDirection(ViewDirection dir){
 		this.viewDir = dir;
 	}
 
+	public ViewDirection getViewDirection(){
+		return viewDir;
+	}
+
 	public void setTime(int newTime){
 		this.time = newTime;
 	}
@@ -1318,5 +972,33 @@ public class GameImagePanel extends JPanel {
 		return this.time;
 	}
 
+	/**
+	 * @return true if time is counting up towards night
+	 */
+	public boolean isTimeRising(){
+		return timeUp;
+	}
+
+	/**
+	 * This method should set the time, along with the time of day
+	 * state that changeTime() would have reached at that time.
+	 * @param newTime time between 0 and 63
+	 * @param rising true if time is counting up towards night,
+	 * 		false if it is counting back down towards day
+	 */
+	public void setTimeOfDay(int newTime, boolean rising){
+		if (newTime < 0 || newTime > 63) {
+			throw new Error("Invalid time value");
+		}
+		time = newTime;
+		if (newTime == 0 || (rising && newTime < 63)) {
+			timeUp = true;
+			state = newTime >= 40 ? DUSK : DAY_TIME;
+		} else {
+			timeUp = false;
+			state = newTime > 20 ? NIGHT_TIME : DAWN;
+		}
+	}
+
 }
 
@@ -0,0 +1,103 @@
+package renderer;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A Lightmap is a single darkness overlay that is drawn over the game
+ * at night. Each frame the overlay is filled with a level of darkness,
+ * circles of light are cut out of it around each light source, and then
+ * the whole overlay is drawn with one image blit.
+ *
+ * -The light masks are circles that are built once for each radius
+ * -No objects are created while a frame is being drawn
+ */
+public class Lightmap {
+
+	//Masks for each radius of light, shared by every lightmap
+	private static final Map<Integer, BufferedImage> masks = new HashMap<Integer, BufferedImage>();
+
+	private final BufferedImage overlay;
+	private final Graphics2D overlayGraphics;
+	private final Composite cutOut = AlphaComposite.getInstance(AlphaComposite.DST_OUT);
+	private final Color[] shades = new Color[256];
+
+	/**
+	 * Creates a new lightmap covering the given area of the screen
+	 * @param width in pixels
+	 * @param height in pixels
+	 */
+	public Lightmap(int width, int height){
+		overlay = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		overlayGraphics = overlay.createGraphics();
+	}
+
+	/**
+	 * This method should be called at the start of each frame. The
+	 * whole overlay is filled with black at the given alpha, removing
+	 * any lights from the last frame.
+	 * @param alpha how dark it is, 0 - 255
+	 */
+	public void clear(int alpha){
+		alpha = Math.max(0, Math.min(255, alpha));
+		if (shades[alpha] == null) {
+			shades[alpha] = new Color(0, 0, 0, alpha);
+		}
+		overlayGraphics.setComposite(AlphaComposite.Src);
+		overlayGraphics.setColor(shades[alpha]);
+		overlayGraphics.fillRect(0, 0, overlay.getWidth(), overlay.getHeight());
+	}
+
+	/**
+	 * Cuts a circle of light out of the darkness
+	 * @param x centre of the light
+	 * @param y centre of the light
+	 * @param radius of the light in pixels
+	 */
+	public void addLight(int x, int y, int radius){
+		overlayGraphics.setComposite(cutOut);
+		overlayGraphics.drawImage(getMask(radius), x - radius, y - radius, null);
+	}
+
+	/**
+	 * Draws the overlay onto the game
+	 * @param g graphics that are doing the drawing
+	 */
+	public void draw(Graphics g){
+		g.drawImage(overlay, 0, 0, null);
+	}
+
+	/**
+	 * Gets the mask for a circle of light with the given radius,
+	 * making it the first time the radius is used.
+	 * @param radius of the light
+	 * @return an image that is opaque inside the circle and clear outside it
+	 */
+	private static BufferedImage getMask(int radius){
+		synchronized (masks) {
+			BufferedImage mask = masks.get(radius);
+			if (mask == null) {
+				int size = radius*2 + 1;
+				mask = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+				int opaque = 0xFF000000;
+				for (int x = 0; x < size; x++) {
+					for (int y = 0; y < size; y++) {
+						int xDiff = x - radius;
+						int yDiff = y - radius;
+						if (xDiff*xDiff + yDiff*yDiff <= radius*radius) {
+							mask.setRGB(x, y, opaque);
+						}
+					}
+				}
+				masks.put(radius, mask);
+			}
+			return mask;
+		}
+	}
+}
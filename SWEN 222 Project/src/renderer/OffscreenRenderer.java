@@ -0,0 +1,73 @@
+package renderer;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import game.Board;
+import game.Player;
+
+/**
+ * An OffscreenRenderer draws the game into a BufferedImage using the same
+ * GameImagePanel pipeline as the game window, without ever opening a
+ * window. It can be used with -Djava.awt.headless=true, for benchmarks,
+ * tests and screenshots.
+ */
+public class OffscreenRenderer {
+
+	public static final int WIDTH = 1100; //Width of the game window
+	public static final int HEIGHT = 750; //Height of the game window
+
+	private final GameImagePanel panel;
+	private final BufferedImage image;
+
+	/**
+	 * Creates a renderer that draws the board as seen by the given player.
+	 * The player should already be in a room and on a tile.
+	 * @param board the board to draw
+	 * @param player the player whose view is drawn
+	 */
+	public OffscreenRenderer(Board board, Player player){
+		this(board, player, WIDTH, HEIGHT);
+	}
+
+	/**
+	 * Creates a renderer that draws into an image of the given size
+	 */
+	public OffscreenRenderer(Board board, Player player, int width, int height){
+		panel = new GameImagePanel(board, player);
+		panel.setSize(width, height);
+		image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+	}
+
+	/**
+	 * Draws one frame, from the given direction and at the given time
+	 * @param viewDir "north", "east", "south" or "west"
+	 * @param time between 0 and 63
+	 * @param rising true if time is counting up towards night
+	 * @return the image the frame was drawn into. The same image is
+	 * 		reused for every frame.
+	 */
+	public BufferedImage render(String viewDir, int time, boolean rising){
+		panel.setViewDir(viewDir);
+		panel.setTimeOfDay(time, rising);
+		return render();
+	}
+
+	/**
+	 * Draws one frame, with the view direction and time left as they are
+	 * @return the image the frame was drawn into
+	 */
+	public BufferedImage render(){
+		Graphics2D g = image.createGraphics();
+		panel.paint(g);
+		g.dispose();
+		return image;
+	}
+
+	/**
+	 * @return the panel that does the drawing, eg to read its profiler
+	 */
+	public GameImagePanel getPanel(){
+		return panel;
+	}
+}
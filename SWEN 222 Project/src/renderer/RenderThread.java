@@ -0,0 +1,165 @@
+package renderer;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A RenderThread draws the game scene on its own thread, instead of
+ * waiting for Swing to call paintComponent. Each frame is drawn into a
+ * back buffer, which is then swapped with the front buffer, and the
+ * panel only has to copy the front buffer onto the screen.
+ *
+ * -Active rendering is turned on with -Ddestinyswild.activeRendering=true
+ * -The frame cap is set with -Ddestinyswild.fps, 0 for no cap
+ * -Buffers are VolatileImages when there is a screen, so they live in video memory
+ */
+public class RenderThread extends Thread {
+
+	public static final String ACTIVE_PROPERTY = "destinyswild.activeRendering";
+	public static final String FPS_PROPERTY = "destinyswild.fps";
+	public static final int DEFAULT_FPS = 120; //Frame cap when none is given
+
+	private final GameImagePanel panel;
+	private final Object bufferLock = new Object();
+	private Image back; //The frame being drawn
+	private Image front; //The last finished frame
+	private volatile int frameCap;
+	private volatile boolean running = true;
+
+	/**
+	 * Creates a new render thread for a panel. The thread still needs to be started.
+	 * @param panel the panel to draw
+	 * @param frameCap most frames to draw each second, 0 for no cap
+	 */
+	public RenderThread(GameImagePanel panel, int frameCap){
+		super("Render");
+		this.panel = panel;
+		this.frameCap = frameCap;
+		setDaemon(true);
+	}
+
+	/**
+	 * @return whether active rendering has been turned on with the system property
+	 */
+	public static boolean isEnabled(){
+		return Boolean.getBoolean(ACTIVE_PROPERTY);
+	}
+
+	/**
+	 * @return the frame cap given with the system property, or DEFAULT_FPS
+	 */
+	public static int getConfiguredFrameCap(){
+		return Integer.getInteger(FPS_PROPERTY, DEFAULT_FPS);
+	}
+
+	@Override
+	public void run() {
+		long nextFrame = System.nanoTime();
+		while (running) {
+			int width = panel.getWidth();
+			int height = panel.getHeight();
+			if (width > 0 && height > 0) {
+				renderFrame(width, height);
+				panel.repaint();
+			}
+
+			int cap = frameCap;
+			if (cap > 0) {
+				nextFrame += 1000000000L / cap;
+				long wait = nextFrame - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				} else {
+					//running behind, don't try to catch up
+					nextFrame = System.nanoTime();
+				}
+			} else {
+				Thread.yield();
+			}
+		}
+	}
+
+	/**
+	 * Draws one frame into the back buffer, then swaps the buffers
+	 */
+	private void renderFrame(int width, int height){
+		GraphicsConfiguration config = panel.getGraphicsConfiguration();
+		do {
+			back = validate(back, config, width, height);
+			Graphics2D g = (Graphics2D) back.getGraphics();
+			panel.renderScene(g); //fills in the background itself
+			g.dispose();
+		} while (back instanceof VolatileImage && ((VolatileImage) back).contentsLost());
+
+		synchronized (bufferLock) {
+			Image drawn = back;
+			back = front;
+			front = drawn;
+		}
+	}
+
+	/**
+	 * Makes sure a buffer exists, is the right size, and can still be drawn to
+	 * @return the buffer, or a new one if it could not be used
+	 */
+	private Image validate(Image buffer, GraphicsConfiguration config, int width, int height){
+		if (buffer != null && (buffer.getWidth(null) != width || buffer.getHeight(null) != height)) {
+			buffer.flush();
+			buffer = null;
+		}
+		if (buffer instanceof VolatileImage && config != null
+				&& ((VolatileImage) buffer).validate(config) == VolatileImage.IMAGE_INCOMPATIBLE) {
+			buffer.flush();
+			buffer = null;
+		}
+		if (buffer == null) {
+			buffer = panel.createVolatileImage(width, height);
+			if (buffer == null) {
+				//no screen to put a volatile image on
+				buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			}
+		}
+		return buffer;
+	}
+
+	/**
+	 * Copies the last finished frame onto the screen. Called by the panel when Swing repaints it.
+	 * @param g graphics that are doing the drawing
+	 * @return false if no frame has been finished yet
+	 */
+	public boolean drawFrame(Graphics g){
+		synchronized (bufferLock) {
+			if (front == null) {
+				return false;
+			}
+			g.drawImage(front, 0, 0, null);
+			return true;
+		}
+	}
+
+	/**
+	 * @param frameCap most frames to draw each second, 0 for no cap
+	 */
+	public void setFrameCap(int frameCap){
+		this.frameCap = frameCap;
+	}
+
+	/**
+	 * @return most frames drawn each second, 0 for no cap
+	 */
+	public int getFrameCap(){
+		return frameCap;
+	}
+
+	/**
+	 * Stops drawing frames. The thread finishes after the frame it is on.
+	 */
+	public void stopRendering(){
+		running = false;
+	}
+}
@@ -0,0 +1,217 @@
+package renderer;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.HashMap;
+import java.util.Map;
+
+import game.Room;
+
+/**
+ * The RoomLayerCache holds the parts of the scene that only change when
+ * an obstacle or item in a room changes, already drawn into images.
+ *
+ * -Neighbour layers hold the ground, obstacles and items of a room that is
+ *  drawn behind the current room, keyed by room id, view direction and side.
+ *  These are low detail copies of the room, so water and fire in them are
+ *  frozen on their first frame, and the whole room is drawn as one image.
+ * -Frame layers hold the walls, ground and doorway stones of the current
+ *  room. These only depend on which exits the room has, so they are shared
+ *  by every room with the same exits.
+ * -Layers are redrawn when Room.getVersion() no longer matches.
+ */
+public class RoomLayerCache {
+
+	private static final int WIDTH = 1100; //Width of the area that can be cached
+	private static final int HEIGHT = 800; //Height of the area that can be cached
+
+	//Neighbour layers by room id, each array indexed by view direction and side
+	private static final Map<Integer, RoomLayer[]> neighbourLayers = new HashMap<Integer, RoomLayer[]>();
+	//Frame layers indexed by view direction and exits
+	private static final RoomLayer[] frameLayers = new RoomLayer[ViewDirection.values().length * 16];
+
+	private static BufferedImage scratch; //Layers are drawn here before being cropped
+
+	/**
+	 * Static class, should not be instantiated
+	 */
+	private RoomLayerCache(){
+
+	}
+
+	/**
+	 * Gets the cached layer for a room that is drawn behind the current room,
+	 * drawing it again if the room has changed since it was cached.
+	 * @param panel the panel that knows how to draw the room
+	 * @param room the neighbouring room
+	 * @param viewDir the direction the board is being viewed from
+	 * @param SorE -1 for the room drawn on the north side, 1 for the east side
+	 * @return the layer for this room
+	 */
+	public static synchronized RoomLayer getNeighbourLayer(GameImagePanel panel, Room room, ViewDirection viewDir, int SorE){
+		RoomLayer[] layers = neighbourLayers.get(room.getId());
+		if (layers == null) {
+			layers = new RoomLayer[ViewDirection.values().length * 2];
+			neighbourLayers.put(room.getId(), layers);
+		}
+		int index = viewDir.ordinal()*2 + (SorE < 0 ? 0 : 1);
+		RoomLayer layer = layers[index];
+		if (layer != null && layer.room == room && layer.version == room.getVersion()) {
+			return layer;
+		}
+
+		int version = room.getVersion();
+		Graphics2D g = beginScratch();
+		panel.paintNeighbour(g, room, viewDir, SorE);
+		g.dispose();
+
+		layer = crop();
+		layer.room = room;
+		layer.version = version;
+		layers[index] = layer;
+		return layer;
+	}
+
+	/**
+	 * Gets the cached walls and ground for a room
+	 * @param panel the panel that knows how to draw the room
+	 * @param room the room the player is in
+	 * @param viewDir the direction the board is being viewed from
+	 * @return the layer for this room
+	 */
+	public static synchronized RoomLayer getFrameLayer(GameImagePanel panel, Room room, ViewDirection viewDir){
+		int exits = (room.getNorth() != -1 ? 8 : 0) | (room.getEast() != -1 ? 4 : 0)
+				| (room.getSouth() != -1 ? 2 : 0) | (room.getWest() != -1 ? 1 : 0);
+		int index = viewDir.ordinal()*16 + exits;
+		RoomLayer layer = frameLayers[index];
+		if (layer != null) {
+			return layer;
+		}
+
+		Graphics2D g = beginScratch();
+		panel.paintFrame(g, room, viewDir);
+		g.dispose();
+
+		layer = crop();
+		frameLayers[index] = layer;
+		return layer;
+	}
+
+	/**
+	 * Draws every layer a room can need, from all four view directions,
+	 * so that nothing has to be drawn the first time the room is seen.
+	 * @param panel the panel that knows how to draw the room
+	 * @param room the room to draw
+	 */
+	public static void prerender(GameImagePanel panel, Room room){
+		for (ViewDirection dir : ViewDirection.values()) {
+			getFrameLayer(panel, room, dir);
+			getNeighbourLayer(panel, room, dir, -1);
+			getNeighbourLayer(panel, room, dir, 1);
+		}
+	}
+
+	/**
+	 * Removes every layer from the cache
+	 */
+	public static synchronized void clear(){
+		neighbourLayers.clear();
+		for (int i = 0; i < frameLayers.length; i++) {
+			frameLayers[i] = null;
+		}
+	}
+
+	/**
+	 * @return the number of layers held in the cache
+	 */
+	public static synchronized int size(){
+		int size = 0;
+		for (RoomLayer[] layers : neighbourLayers.values()) {
+			for (RoomLayer layer : layers) {
+				if (layer != null) {
+					size++;
+				}
+			}
+		}
+		for (RoomLayer layer : frameLayers) {
+			if (layer != null) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Clears the scratch image and gets it ready to be drawn on
+	 */
+	private static Graphics2D beginScratch(){
+		if (scratch == null) {
+			scratch = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		}
+		Graphics2D g = scratch.createGraphics();
+		g.setComposite(AlphaComposite.Clear);
+		g.fillRect(0, 0, WIDTH, HEIGHT);
+		g.setComposite(AlphaComposite.SrcOver);
+		return g;
+	}
+
+	/**
+	 * Copies the part of the scratch image that was drawn on into a layer
+	 * of its own, so that a layer is no bigger than it needs to be.
+	 */
+	private static RoomLayer crop(){
+		int[] pixels = ((DataBufferInt) scratch.getRaster().getDataBuffer()).getData();
+		int minX = WIDTH, minY = HEIGHT, maxX = -1, maxY = -1;
+		for (int y = 0; y < HEIGHT; y++) {
+			int row = y*WIDTH;
+			for (int x = 0; x < WIDTH; x++) {
+				if ((pixels[row + x] >>> 24) != 0) {
+					minX = Math.min(minX, x);
+					maxX = Math.max(maxX, x);
+					minY = Math.min(minY, y);
+					maxY = y;
+				}
+			}
+		}
+		RoomLayer layer = new RoomLayer();
+		if (maxX < 0) {
+			//nothing was drawn
+			return layer;
+		}
+		int width = maxX - minX + 1;
+		int height = maxY - minY + 1;
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.drawImage(scratch.getSubimage(minX, minY, width, height), 0, 0, null);
+		g.dispose();
+		layer.image = SpriteCache.toCompatibleImage(image);
+		layer.x = minX;
+		layer.y = minY;
+		return layer;
+	}
+
+	/**
+	 * A RoomLayer is one cached image and where it should be drawn.
+	 */
+	public static class RoomLayer {
+		private BufferedImage image;
+		private int x;
+		private int y;
+		private Room room;
+		private int version;
+
+		/**
+		 * Draws this layer at the position it was cached from
+		 * @param g graphics that are doing the drawing
+		 */
+		public void draw(Graphics g){
+			if (image != null) {
+				g.drawImage(image, x, y, null);
+			}
+		}
+	}
+}
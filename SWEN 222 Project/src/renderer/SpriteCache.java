@@ -0,0 +1,266 @@
+package renderer;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+/**
+ * The SpriteCache holds every image in the data/images folder in memory.
+ * Each image is decoded from disk only once, converted to a format that is
+ * compatible with the display, and then stored against its file name so
+ * that the renderer never has to touch the disk while drawing a frame.
+ *
+ * -Names that do not exist in the folder fall back to the default cube
+ * -Cached images are shared, so they should never be drawn on. getCopy()
+ *  gives an image that can be drawn on instead
+ * -Images are decoded in parallel on a fork-join pool
+ * -Hit and miss counters are kept so the cache can be checked at runtime
+ */
+public class SpriteCache {
+
+	private static final String IMAGE_PATH = "data/images/"; //The path to all the images
+	private static final String DEFAULT_IMAGE = "wireframecube.png"; //Drawn when an image cannot be found
+
+	private static final Map<String, BufferedImage> images = new ConcurrentHashMap<String, BufferedImage>();
+	private static final AtomicLong hits = new AtomicLong();
+	private static final AtomicLong misses = new AtomicLong();
+
+	private static volatile boolean loaded = false;
+	private static BufferedImage defaultCube;
+
+	/**
+	 * Static class, should not be instantiated
+	 */
+	private SpriteCache(){
+
+	}
+
+	/**
+	 * Decodes every image in the data/images folder and stores it in the cache.
+	 * This only does any work the first time it is called.
+	 */
+	public static void preload(){
+		preload(ForkJoinPool.commonPool(), null);
+	}
+
+	/**
+	 * Decodes every image in the data/images folder on the given pool, and
+	 * stores it in the cache. This only does any work the first time it is called.
+	 * @param pool the pool to decode the images on
+	 * @param decoded counts up as each file is decoded, may be null
+	 */
+	public static synchronized void preload(ForkJoinPool pool, AtomicInteger decoded){
+		if (loaded) {
+			return;
+		}
+		List<File> files = listImageFiles();
+		pool.invoke(new DecodeTask(files, 0, files.size(), decoded));
+		defaultCube = images.get(DEFAULT_IMAGE);
+		loaded = true;
+	}
+
+	/**
+	 * @return every file in the data/images folder
+	 */
+	public static List<File> listImageFiles(){
+		List<File> files = new ArrayList<File>();
+		File[] contents = new File(IMAGE_PATH).listFiles();
+		if (contents != null) {
+			for (File file : contents) {
+				if (file.isFile()) {
+					files.add(file);
+				}
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * @return whether every image has been decoded
+	 */
+	public static boolean isLoaded(){
+		return loaded;
+	}
+
+	/**
+	 * Reads a single image file from disk and converts it for the display
+	 * @param file the image file
+	 * @return the decoded image, or null if the file is not an image
+	 */
+	private static BufferedImage decode(File file){
+		try {
+			BufferedImage img = ImageIO.read(file);
+			if (img == null) {
+				//not an image file
+				return null;
+			}
+			return toCompatibleImage(img);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the image with the given file name from the cache.
+	 * If there is no image with that name, the default cube is returned.
+	 * @param filename name of the image, eg "ground.png"
+	 * @return the cached image
+	 */
+	public static BufferedImage getImage(String filename){
+		if (!loaded) {
+			preload();
+		}
+		BufferedImage img = images.get(filename);
+		if (img == null) {
+			misses.incrementAndGet();
+			return defaultCube;
+		}
+		hits.incrementAndGet();
+		return img;
+	}
+
+	/**
+	 * Gets a copy of an image from the cache, which the caller can draw on
+	 * without changing the image everyone else is sharing.
+	 * @param filename name of the image, eg "itemBox.png"
+	 * @return a new image with the same pixels as the cached image
+	 */
+	public static BufferedImage getCopy(String filename){
+		BufferedImage img = getImage(filename);
+		BufferedImage copy = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = copy.createGraphics();
+		g.setComposite(AlphaComposite.Src); //copy translucent pixels exactly, rather than blending them
+		g.drawImage(img, 0, 0, null);
+		g.dispose();
+		return copy;
+	}
+
+	/**
+	 * @param filename name of the image
+	 * @return whether the data/images folder contains an image with this name
+	 */
+	public static boolean contains(String filename){
+		if (!loaded) {
+			preload();
+		}
+		return images.containsKey(filename);
+	}
+
+	/**
+	 * @return the default image, drawn when an image cannot be found
+	 */
+	public static BufferedImage getDefaultImage(){
+		if (!loaded) {
+			preload();
+		}
+		return defaultCube;
+	}
+
+	/**
+	 * @return the number of images held in the cache
+	 */
+	public static int size(){
+		return images.size();
+	}
+
+	/**
+	 * @return the number of lookups that were found in the cache
+	 */
+	public static long getHitCount(){
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of lookups that fell back to the default image
+	 */
+	public static long getMissCount(){
+		return misses.get();
+	}
+
+	/**
+	 * Sets the hit and miss counters back to zero
+	 */
+	public static void resetCounters(){
+		hits.set(0);
+		misses.set(0);
+	}
+
+	/**
+	 * Copies an image into the pixel format of the screen, so that drawing
+	 * it does not need a conversion every time. When there is no screen
+	 * (headless), the image is returned as it is.
+	 * @param img image to convert
+	 * @return an image that is compatible with the display
+	 */
+	public static BufferedImage toCompatibleImage(BufferedImage img){
+		if (GraphicsEnvironment.isHeadless()) {
+			return img;
+		}
+		GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice().getDefaultConfiguration();
+		if (img.getColorModel().equals(config.getColorModel(img.getTransparency()))) {
+			return img;
+		}
+		BufferedImage compatible = config.createCompatibleImage(img.getWidth(), img.getHeight(), img.getTransparency());
+		Graphics2D g = compatible.createGraphics();
+		g.drawImage(img, 0, 0, null);
+		g.dispose();
+		return compatible;
+	}
+
+	/**
+	 * Decodes a range of files, splitting the range in half
+	 * until it is small enough to decode on one thread.
+	 */
+	private static class DecodeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private static final int THRESHOLD = 4; //Most files decoded by one task
+
+		private final List<File> files;
+		private final int start;
+		private final int end;
+		private final AtomicInteger decoded;
+
+		private DecodeTask(List<File> files, int start, int end, AtomicInteger decoded){
+			this.files = files;
+			this.start = start;
+			this.end = end;
+			this.decoded = decoded;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= THRESHOLD) {
+				for (int i = start; i < end; i++) {
+					File file = files.get(i);
+					BufferedImage img = decode(file);
+					if (img != null) {
+						images.put(file.getName(), img);
+					}
+					if (decoded != null) {
+						decoded.incrementAndGet();
+					}
+				}
+				return;
+			}
+			int middle = (start + end) / 2;
+			invokeAll(new DecodeTask(files, start, middle, decoded),
+					new DecodeTask(files, middle, end, decoded));
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package renderer;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SpriteSheets slices each of the animated sprite sheets into its frames once,
+ * so that the renderer can pick the frame it needs with an array lookup rather
+ * than cutting a sub image out of the sheet every time something is drawn.
+ *
+ * -Player sheets are indexed by [direction column][walk state]
+ * -Enemy sheets are indexed by [direction][animation row]
+ * -Breakables are indexed by [row][stage]
+ */
+public class SpriteSheets {
+
+	public static final int PLAYER_WIDTH = 50; //Width of a single player frame
+	public static final int PLAYER_HEIGHT = 82; //Height of a single player frame
+	public static final int ENEMY_WIDTH = 70; //Width of a single enemy frame
+	public static final int ENEMY_HEIGHT = 72; //Height of a single enemy frame
+	public static final int WATER_WIDTH = 70; //Width of a single water frame
+	public static final int WATER_HEIGHT = 34; //Height of a single water frame
+	public static final int WATER_FRAMES = 16; //Number of water animation states
+	public static final int BREAKABLE_WIDTH = 70; //Width of a single breakable frame
+	public static final int BREAKABLE_HEIGHT = 72; //Height of a single breakable frame
+	public static final int COMPASS_WIDTH = 76; //Width of a single compass frame
+	public static final int COMPASS_HEIGHT = 50; //Height of a single compass frame
+
+	//Bits used to make up a direction index for the player sheets
+	public static final int NORTH_BIT = 8;
+	public static final int EAST_BIT = 4;
+	public static final int SOUTH_BIT = 2;
+	public static final int WEST_BIT = 1;
+
+	private static final String[] ENEMY_TYPES = {"bats", "snail"}; //Enemies with a sprite sheet
+
+	//Sheet column for each combination of direction bits, -1 when standing still
+	private static final int[] DIRECTION_COLUMNS = new int[16];
+
+	private static BufferedImage[][] playerFrames;
+	private static BufferedImage[][] otherPlayerFrames;
+	private static BufferedImage[] waterFrames;
+	private static BufferedImage[][] breakableFrames;
+	private static BufferedImage[] compassFrames;
+	private static final Map<String, BufferedImage[][]> enemyFrames = new ConcurrentHashMap<String, BufferedImage[][]>();
+
+	private static volatile boolean loaded = false;
+
+	static {
+		for (int bits = 0; bits < DIRECTION_COLUMNS.length; bits++) {
+			DIRECTION_COLUMNS[bits] = columnFor((bits & NORTH_BIT) != 0, (bits & EAST_BIT) != 0,
+					(bits & SOUTH_BIT) != 0, (bits & WEST_BIT) != 0);
+		}
+	}
+
+	/**
+	 * Static class, should not be instantiated
+	 */
+	private SpriteSheets(){
+
+	}
+
+	/**
+	 * Slices every sprite sheet into frames. This only does any work
+	 * the first time it is called.
+	 */
+	public static synchronized void load(){
+		if (loaded) {
+			return;
+		}
+		playerFrames = sliceColumns(SpriteCache.getImage("playerSpriteSheetWalking.png"), PLAYER_WIDTH, PLAYER_HEIGHT);
+		otherPlayerFrames = sliceColumns(SpriteCache.getImage("otherSpriteSheetWalking.png"), PLAYER_WIDTH, PLAYER_HEIGHT);
+		breakableFrames = sliceRows(SpriteCache.getImage("BreakablesSheet.png"), BREAKABLE_WIDTH, BREAKABLE_HEIGHT);
+		compassFrames = sliceRows(SpriteCache.getImage("compassSpriteSheet.png"), COMPASS_WIDTH, COMPASS_HEIGHT)[0];
+
+		//the water frames run left to right, then top to bottom
+		BufferedImage[][] water = sliceRows(SpriteCache.getImage("waterSpriteSheet.png"), WATER_WIDTH, WATER_HEIGHT);
+		waterFrames = new BufferedImage[WATER_FRAMES];
+		for (int i = 0; i < WATER_FRAMES; i++) {
+			waterFrames[i] = water[i/4][i%4];
+		}
+
+		for (String type : ENEMY_TYPES) {
+			enemyFrames.put(type, sliceColumns(SpriteCache.getImage(type + "SpriteSheet.png"), ENEMY_WIDTH, ENEMY_HEIGHT));
+		}
+		loaded = true;
+	}
+
+	/**
+	 * Works out which column of a player sheet should be used when the player
+	 * is moving in the given directions.
+	 * @return the column, or -1 if the player is not moving
+	 */
+	private static int columnFor(boolean north, boolean east, boolean south, boolean west){
+		if (north) {
+			if (east && west) {
+				return 0;
+			} else if (west) {
+				return 1;
+			} else if (east) {
+				return 7;
+			}
+			return 0;
+		} else if (east) {
+			return south ? 5 : 6;
+		} else if (south) {
+			return west ? 3 : 4;
+		} else if (west) {
+			return 2;
+		}
+		return -1;
+	}
+
+	/**
+	 * Packs the four direction booleans into a single index for the player sheets
+	 * @return direction bits between 0 and 15
+	 */
+	public static int directionBits(boolean north, boolean east, boolean south, boolean west){
+		return (north ? NORTH_BIT : 0) | (east ? EAST_BIT : 0) | (south ? SOUTH_BIT : 0) | (west ? WEST_BIT : 0);
+	}
+
+	/**
+	 * Gets the frame for the user's own player
+	 * @param dirBits direction bits from directionBits()
+	 * @param walkState the player's walk state
+	 * @return the frame, or null if the player is not moving in any direction
+	 */
+	public static BufferedImage getPlayerFrame(int dirBits, int walkState){
+		return playerFrame(playerFrames, dirBits, walkState);
+	}
+
+	/**
+	 * Gets the frame for any other player in the room
+	 * @param dirBits direction bits from directionBits()
+	 * @param walkState the player's walk state
+	 * @return the frame, or null if the player is not moving in any direction
+	 */
+	public static BufferedImage getOtherPlayerFrame(int dirBits, int walkState){
+		return playerFrame(otherPlayerFrames, dirBits, walkState);
+	}
+
+	private static BufferedImage playerFrame(BufferedImage[][] frames, int dirBits, int walkState){
+		if (!loaded) {
+			load();
+		}
+		int column = DIRECTION_COLUMNS[dirBits & 15];
+		if (column < 0) {
+			return null;
+		}
+		return frames[column][walkState];
+	}
+
+	/**
+	 * Gets the frame for an enemy that walks around
+	 * @param type of enemy, eg "bats"
+	 * @param dir direction the enemy is facing on screen, 0 - 3
+	 * @param animationState the enemy's animation state
+	 * @return the frame for this enemy
+	 */
+	public static BufferedImage getEnemyFrame(String type, int dir, int animationState){
+		if (!loaded) {
+			load();
+		}
+		BufferedImage[][] frames = enemyFrames.get(type);
+		if (frames == null) {
+			//an enemy that was not known about at start up
+			frames = sliceColumns(SpriteCache.getImage(type + "SpriteSheet.png"), ENEMY_WIDTH, ENEMY_HEIGHT);
+			enemyFrames.put(type, frames);
+		}
+		if (dir < 0 || dir >= frames.length) {
+			return SpriteCache.getDefaultImage();
+		}
+		BufferedImage[] column = frames[dir];
+		return column[Math.min(animationState/5, column.length-1)];
+	}
+
+	/**
+	 * @param waterState the water animation state, 0 - 15
+	 * @return the water frame for this state
+	 */
+	public static BufferedImage getWaterFrame(int waterState){
+		if (!loaded) {
+			load();
+		}
+		return waterFrames[waterState % WATER_FRAMES];
+	}
+
+	/**
+	 * @param row the row of the breakable sheet, which depends on the type of breakable
+	 * @param stage how broken the breakable is, starting at 0
+	 * @return the frame for this breakable
+	 */
+	public static BufferedImage getBreakableFrame(int row, int stage){
+		if (!loaded) {
+			load();
+		}
+		if (row < 0 || row >= breakableFrames.length || stage < 0 || stage >= breakableFrames[row].length) {
+			return SpriteCache.getDefaultImage();
+		}
+		return breakableFrames[row][stage];
+	}
+
+	/**
+	 * @param index 0 for north, 1 for east, 2 for south and 3 for west
+	 * @return the compass frame
+	 */
+	public static BufferedImage getCompassFrame(int index){
+		if (!loaded) {
+			load();
+		}
+		return compassFrames[index];
+	}
+
+	/**
+	 * Cuts a sheet up into frames, indexed by [column][row]
+	 */
+	private static BufferedImage[][] sliceColumns(BufferedImage sheet, int width, int height){
+		int columns = Math.max(1, sheet.getWidth()/width);
+		int rows = Math.max(1, sheet.getHeight()/height);
+		BufferedImage[][] frames = new BufferedImage[columns][rows];
+		for (int col = 0; col < columns; col++) {
+			for (int row = 0; row < rows; row++) {
+				frames[col][row] = copyFrame(sheet, col*width, row*height, width, height);
+			}
+		}
+		return frames;
+	}
+
+	/**
+	 * Cuts a sheet up into frames, indexed by [row][column]
+	 */
+	private static BufferedImage[][] sliceRows(BufferedImage sheet, int width, int height){
+		int columns = Math.max(1, sheet.getWidth()/width);
+		int rows = Math.max(1, sheet.getHeight()/height);
+		BufferedImage[][] frames = new BufferedImage[rows][columns];
+		for (int row = 0; row < rows; row++) {
+			for (int col = 0; col < columns; col++) {
+				frames[row][col] = copyFrame(sheet, col*width, row*height, width, height);
+			}
+		}
+		return frames;
+	}
+
+	/**
+	 * Copies a single frame out of a sheet into its own image, so each
+	 * frame can be accelerated on its own.
+	 */
+	private static BufferedImage copyFrame(BufferedImage sheet, int x, int y, int width, int height){
+		width = Math.min(width, sheet.getWidth() - x);
+		height = Math.min(height, sheet.getHeight() - y);
+		BufferedImage frame;
+		if (GraphicsEnvironment.isHeadless()) {
+			frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		} else {
+			GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+					.getDefaultScreenDevice().getDefaultConfiguration();
+			frame = config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		}
+		Graphics2D g = frame.createGraphics();
+		g.drawImage(sheet.getSubimage(x, y, width, height), 0, 0, null);
+		g.dispose();
+		return frame;
+	}
+}
@@ -0,0 +1,138 @@
+package renderer;
+
+import java.awt.Point;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import game.Board;
+import game.Player;
+import game.Room;
+import game.npcs.NPC;
+
+/**
+ * The TickInterpolator remembers where every player and NPC was at the
+ * end of the last two simulation ticks. When the game is drawn faster
+ * than it is simulated, the renderer can then draw each entity part of
+ * the way between those two positions, so that motion looks smooth
+ * without the simulation speeding up.
+ *
+ * -recordTick() should be called by the game loop after every tick
+ * -Entities that change room, or jump further than MAX_STEP, are not interpolated
+ */
+public class TickInterpolator {
+
+	public static final int TICKS_PER_SECOND = 30; //Rate of the simulation
+	private static final long NANOS_PER_TICK = 1000000000L / TICKS_PER_SECOND;
+	private static final int MAX_STEP = 60; //Furthest an entity can move in one tick and still be interpolated
+
+	private static final Map<Object, Snapshot> snapshots = new IdentityHashMap<Object, Snapshot>();
+	private static volatile long lastTickNanos = System.nanoTime();
+	private static volatile long tickCount = 0;
+
+	/**
+	 * Static class, should not be instantiated
+	 */
+	private TickInterpolator(){
+
+	}
+
+	/**
+	 * Records the positions of every player, and of the NPCs in the room
+	 * being simulated, at the end of a tick.
+	 * @param board the board holding the players
+	 * @param room the room whose NPCs were simulated this tick
+	 */
+	public static synchronized void recordTick(Board board, Room room){
+		tickCount++;
+		for (Player player : board.getPlayers()) {
+			if (player != null && player.getCoords() != null) {
+				record(player, player.getCoords(), player.getCurrentRoom());
+			}
+		}
+		if (room != null) {
+			for (NPC npc : room.getNpcs()) {
+				if (npc != null && npc.getRealCoords() != null) {
+					record(npc, npc.getRealCoords(), room);
+				}
+			}
+		}
+		//forget anything that was not seen this tick
+		Iterator<Snapshot> it = snapshots.values().iterator();
+		while (it.hasNext()) {
+			if (it.next().tick != tickCount) {
+				it.remove();
+			}
+		}
+		lastTickNanos = System.nanoTime();
+	}
+
+	private static void record(Object entity, Point coords, Room room){
+		Snapshot snapshot = snapshots.get(entity);
+		if (snapshot == null) {
+			snapshot = new Snapshot();
+			snapshot.curX = coords.x;
+			snapshot.curY = coords.y;
+			snapshot.room = room;
+			snapshots.put(entity, snapshot);
+		}
+		snapshot.prevX = snapshot.curX;
+		snapshot.prevY = snapshot.curY;
+		snapshot.prevRoom = snapshot.room;
+		snapshot.curX = coords.x;
+		snapshot.curY = coords.y;
+		snapshot.room = room;
+		snapshot.tick = tickCount;
+	}
+
+	/**
+	 * @return how far through the current tick we are, between 0 and 1
+	 */
+	public static float getAlpha(){
+		float alpha = (System.nanoTime() - lastTickNanos) / (float) NANOS_PER_TICK;
+		return Math.max(0f, Math.min(1f, alpha));
+	}
+
+	/**
+	 * @return the number of ticks recorded so far
+	 */
+	public static long getTickCount(){
+		return tickCount;
+	}
+
+	/**
+	 * Works out where an entity should be drawn.
+	 * @param entity a player or NPC
+	 * @param alpha how far through the tick, from getAlpha()
+	 * @param out set to the position to draw the entity at
+	 * @return false if the entity should just be drawn where it is
+	 */
+	public static synchronized boolean interpolate(Object entity, float alpha, Point out){
+		Snapshot snapshot = snapshots.get(entity);
+		if (snapshot == null || snapshot.room != snapshot.prevRoom) {
+			return false;
+		}
+		int dx = snapshot.curX - snapshot.prevX;
+		int dy = snapshot.curY - snapshot.prevY;
+		if (Math.abs(dx) > MAX_STEP || Math.abs(dy) > MAX_STEP) {
+			//teleported, eg through a door
+			return false;
+		}
+		out.x = snapshot.prevX + Math.round(dx*alpha);
+		out.y = snapshot.prevY + Math.round(dy*alpha);
+		return true;
+	}
+
+	/**
+	 * Where an entity was at the end of the last two ticks
+	 */
+	private static class Snapshot {
+		private int prevX;
+		private int prevY;
+		private int curX;
+		private int curY;
+		private Room prevRoom;
+		private Room room;
+		private long tick;
+	}
+}
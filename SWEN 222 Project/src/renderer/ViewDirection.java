@@ -0,0 +1,258 @@
+package renderer;
+
+import game.Room;
+
+/**
+ * A ViewDirection is one of the four directions the board can be viewed from.
+ * Everything that depends on the view direction is worked out once, when the
+ * enum is loaded, so that drawing a rotated room is just looking up tables.
+ *
+ * -Compass directions are numbered 0 north, 1 east, 2 south, 3 west
+ * -Cells are drawn from back to front, and the order depends on the view
+ * -A cell of the room is drawn at a screen x and y, which is also the
+ *  tile it is drawn over when the room is rotated
+ */
+public enum ViewDirection {
+
+	//       name    reverse rows/cols  N wall E wall stones  north side  east side
+	NORTH("north", false, true,  0, 1, 3, 2, -1,  0,  0,  1),
+	EAST ("east",  false, false, 3, 0, 2, 1,  0, -1, -1,  0),
+	SOUTH("south", true,  false, 2, 3, 1, 0,  1,  0,  0, -1),
+	WEST ("west",  true,  true,  1, 2, 0, 3,  0,  1,  1,  0);
+
+	public static final int SIZE = 10; //Rows and columns in a room
+	public static final int CELLS = SIZE*SIZE;
+
+	private static final ViewDirection[] VALUES = values();
+
+	private final String name;
+
+	private final int[] cellRows = new int[CELLS]; //Room row of the cell at each position in drawing order
+	private final int[] cellCols = new int[CELLS]; //Room column of the cell at each position in drawing order
+	private final int[][] screenX = new int[SIZE][SIZE]; //Screen x of each room cell, also the column of the tile it is drawn over
+	private final int[][] screenY = new int[SIZE][SIZE]; //Screen y of each room cell, also the row of the tile it is drawn over
+
+	private final int northWallExit; //Exit shown in the north wall
+	private final int eastWallExit; //Exit shown in the east wall
+	private final int leftStonesExit; //Exit whose doorway stones are on the left of the ground
+	private final int rightStonesExit; //Exit whose doorway stones are on the right of the ground
+
+	private final int northRowStep; //Board row step to the room drawn on the north side
+	private final int northColStep; //Board column step to the room drawn on the north side
+	private final int eastRowStep; //Board row step to the room drawn on the east side
+	private final int eastColStep; //Board column step to the room drawn on the east side
+
+	private ViewDirection(String name, boolean reverseRows, boolean reverseCols,
+			int northWallExit, int eastWallExit, int leftStonesExit, int rightStonesExit,
+			int northRowStep, int northColStep, int eastRowStep, int eastColStep){
+		this.name = name;
+		this.northWallExit = northWallExit;
+		this.eastWallExit = eastWallExit;
+		this.leftStonesExit = leftStonesExit;
+		this.rightStonesExit = rightStonesExit;
+		this.northRowStep = northRowStep;
+		this.northColStep = northColStep;
+		this.eastRowStep = eastRowStep;
+		this.eastColStep = eastColStep;
+
+		for (int k = 0; k < CELLS; k++) {
+			cellRows[k] = reverseRows ? SIZE-1 - k/SIZE : k/SIZE;
+			cellCols[k] = reverseCols ? SIZE-1 - k%SIZE : k%SIZE;
+		}
+		//each view is the one before it turned a quarter turn
+		for (int i = 0; i < SIZE; i++) {
+			for (int j = 0; j < SIZE; j++) {
+				int row = i;
+				int col = j;
+				for (int turn = 0; turn < ordinal(); turn++) {
+					int temp = row;
+					row = col;
+					col = SIZE-1 - temp;
+				}
+				screenX[i][j] = col;
+				screenY[i][j] = row;
+			}
+		}
+	}
+
+	/**
+	 * @param name "north", "east", "south" or "west"
+	 * @return the view direction with that name
+	 */
+	public static ViewDirection fromName(String name){
+		for (ViewDirection dir : VALUES) {
+			if (dir.name.equals(name)) {
+				return dir;
+			}
+		}
+		throw new IllegalArgumentException("Invalid view direction: " + name);
+	}
+
+	/**
+	 * @return "north", "east", "south" or "west"
+	 */
+	public String getName(){
+		return name;
+	}
+
+	/**
+	 * @return the view direction a quarter turn clockwise from this one
+	 */
+	public ViewDirection next(){
+		return VALUES[(ordinal() + 1) % VALUES.length];
+	}
+
+	/**
+	 * @return the view direction a quarter turn anticlockwise from this one
+	 */
+	public ViewDirection previous(){
+		return VALUES[(ordinal() + VALUES.length - 1) % VALUES.length];
+	}
+
+	/**
+	 * @param k position in drawing order, from 0 to CELLS-1
+	 * @return the room row of the cell drawn at that position
+	 */
+	public int cellRow(int k){
+		return cellRows[k];
+	}
+
+	/**
+	 * @param k position in drawing order, from 0 to CELLS-1
+	 * @return the room column of the cell drawn at that position
+	 */
+	public int cellCol(int k){
+		return cellCols[k];
+	}
+
+	/**
+	 * @return the screen x of a room cell. This is also the column
+	 * 		of the tile that the cell is drawn over.
+	 */
+	public int screenX(int row, int col){
+		return screenX[row][col];
+	}
+
+	/**
+	 * @return the screen y of a room cell. This is also the row
+	 * 		of the tile that the cell is drawn over.
+	 */
+	public int screenY(int row, int col){
+		return screenY[row][col];
+	}
+
+	/**
+	 * Turns how far an entity is from the middle of its tile into how far
+	 * it should be drawn from the middle of the rotated tile.
+	 * @param xDif x distance from the middle of the tile
+	 * @param yDif y distance from the middle of the tile
+	 * @return x distance from the middle of the rotated tile
+	 */
+	public int offsetX(int xDif, int yDif){
+		switch (this) {
+		case EAST:
+			return -(yDif*2);
+		case SOUTH:
+			return -xDif;
+		case WEST:
+			return yDif*2;
+		default:
+			return xDif;
+		}
+	}
+
+	/**
+	 * @return y distance from the middle of the rotated tile
+	 * @see #offsetX(int, int)
+	 */
+	public int offsetY(int xDif, int yDif){
+		switch (this) {
+		case EAST:
+			return -(-xDif/2);
+		case SOUTH:
+			return -yDif;
+		case WEST:
+			return -(xDif/2);
+		default:
+			return yDif;
+		}
+	}
+
+	/**
+	 * @param compass a direction on the board, 0 north to 3 west
+	 * @return the direction on screen that it is drawn facing
+	 */
+	public int toScreen(int compass){
+		return (compass + ordinal()) % VALUES.length;
+	}
+
+	/**
+	 * @param screen a direction on screen, 0 up-right to 3 up-left
+	 * @return the direction on the board that is drawn facing it
+	 */
+	public int toCompass(int screen){
+		return (screen + VALUES.length - ordinal()) % VALUES.length;
+	}
+
+	/**
+	 * @return whether the room has an exit in the north wall of the screen
+	 */
+	public boolean hasNorthWallExit(Room room){
+		return exit(room, northWallExit) != -1;
+	}
+
+	/**
+	 * @return whether the room has an exit in the east wall of the screen
+	 */
+	public boolean hasEastWallExit(Room room){
+		return exit(room, eastWallExit) != -1;
+	}
+
+	/**
+	 * @return whether doorway stones should be drawn on the left of the ground
+	 */
+	public boolean hasLeftStones(Room room){
+		return exit(room, leftStonesExit) != -1;
+	}
+
+	/**
+	 * @return whether doorway stones should be drawn on the right of the ground
+	 */
+	public boolean hasRightStones(Room room){
+		return exit(room, rightStonesExit) != -1;
+	}
+
+	/**
+	 * @param SorE -1 for the room drawn on the north side, 1 for the east side
+	 * @return how many board rows away that room is
+	 */
+	public int neighbourRowStep(int SorE){
+		return SorE < 0 ? northRowStep : eastRowStep;
+	}
+
+	/**
+	 * @param SorE -1 for the room drawn on the north side, 1 for the east side
+	 * @return how many board columns away that room is
+	 */
+	public int neighbourColStep(int SorE){
+		return SorE < 0 ? northColStep : eastColStep;
+	}
+
+	private static int exit(Room room, int compass){
+		switch (compass) {
+		case 0:
+			return room.getNorth();
+		case 1:
+			return room.getEast();
+		case 2:
+			return room.getSouth();
+		default:
+			return room.getWest();
+		}
+	}
+
+	@Override
+	public String toString(){
+		return name;
+	}
+}
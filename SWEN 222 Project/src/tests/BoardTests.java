@@ -61,6 +61,20 @@ public class BoardTests {
 		assertNotEquals(board.getPlayer("Tom"), null);
 	}
 	
+	@Test
+	public void validGetPlayerIgnoresCase() {
+		board.addPlayers(new Player("Tom", new Point(2,2), new Room(0,0,0,0,0,new Point(0,0))));
+		assertEquals(board.getPlayer("tOM").getName(), "Tom");
+	}
+	
+	@Test
+	public void notValidGetPlayerAfterRemove() {
+		Player tom = new Player("Tom", new Point(2,2), new Room(0,0,0,0,0,new Point(0,0)));
+		board.addPlayers(tom);
+		board.removePlayers(tom);
+		assertEquals(board.getPlayer("Tom"), null);
+	}
+	
 	@Test
 	public void notValidGetPlayer() {
 		assertEquals(board.getPlayer("Tom"), null);
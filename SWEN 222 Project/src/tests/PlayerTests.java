@@ -1,15 +1,20 @@
 package tests;
 
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 
 import java.awt.Point;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
 
+import game.Direction;
 import game.Player;
 import game.Room;
+import game.Tile;
 import game.items.Health;
 import game.items.Item;
 import game.items.Key;
@@ -18,6 +23,8 @@ import game.items.Tool;
 public class PlayerTests {
 	private Player player = new Player("Testing Tom", new Point(0,0), 100,
 			new Room(-1,-1,-1,-1,50,new Point(0,0)), new ArrayList<Room>(), new ArrayList<Item>(), 100);
+	//directions to walk a square in
+	private static final Direction[] SQUARE = {Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST};
 	
 	/**
 	 * Player should be able to cut down vines if they
@@ -74,6 +81,23 @@ public class PlayerTests {
 		}
 	}
 	
+	/**
+	 * A room should only be added to the visited rooms once, and
+	 * should then be found by its board position.
+	 */
+	@Test
+	public void validVisitedRooms() {
+		Room room = new Room(-1,-1,-1,-1,51,new Point(1,2));
+		player.addRoom(room);
+		player.addRoom(room);
+		assertEquals(1, player.getVisitedRooms().size());
+		assertTrue(player.hasVisited(room));
+		assertTrue(player.hasVisited(1, 2));
+		assertFalse(player.hasVisited(2, 1));
+		assertFalse(player.hasVisited(5, 0));
+		assertEquals(Player.visitedBit(1, 2), player.getVisitedMask());
+	}
+	
 	/**
 	 * Player should not be able to remove anything from their
 	 * empty inventory.
@@ -109,6 +133,68 @@ public class PlayerTests {
 		assertTrue(inventory.get(0).equals(apple));
 	}
 	
+	/**
+	 * Inventory should count and find items of each type.
+	 */
+	@Test
+	public void validInventorySlots() {
+		Tool machete = new Tool("machete", 40);
+		Health apple = new Health("apple", new Point(0,0), 5, 100);
+		Health berry = new Health("berry", new Point(0,0), 5, 101);
+		player.addInventoryItem(machete);
+		player.addInventoryItem(apple);
+		player.addInventoryItem(berry);
+		assertEquals(2, player.numHealthItems());
+		assertEquals(1, player.numToolItems());
+		assertEquals(berry, player.getHealthItem(1));
+		assertEquals(machete, player.getToolItem("machete"));
+		assertEquals(apple, player.getInventoryItemFromId(100));
+		player.removeInventoryItem(0);
+		assertEquals(null, player.getInventoryItemFromId(100));
+		assertEquals(berry, player.getInventory().get(0));
+	}
+	
+	/**
+	 * Walking around a room, and bumping into its walls,
+	 * shouldn't create any objects.
+	 */
+	@Test
+	public void validMoveWithoutAllocating() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+		assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		long threadId = Thread.currentThread().getId();
+
+		Room room = new Room(-1,-1,-1,-1,0,new Point(0,0));
+		room.initialiseTiles();
+		Tile start = room.getTile(1, 4);
+		Player walker = new Player("Walker", new Point(start.getRealCoords()), room);
+		//walk once first, so that every class used is loaded
+		walk(walker, 2000);
+		threadBean.getThreadAllocatedBytes(threadId);
+		//the JIT compiler can allocate now and then while it swaps in compiled
+		//code, so the walk only has to get through one round without allocating
+		long fewest = Long.MAX_VALUE;
+		for (int round = 0; round < 5; ++round) {
+			long before = threadBean.getThreadAllocatedBytes(threadId);
+			walk(walker, 2000);
+			fewest = Math.min(fewest, threadBean.getThreadAllocatedBytes(threadId) - before);
+		}
+		assertEquals(0, fewest);
+	}
+	
+	/**
+	 * Walks a player round in a square, far enough in
+	 * each direction to bump into the walls of the room.
+	 */
+	private void walk(Player walker, int moves) {
+		for (int i = 0; i < moves; ++i) {
+			walker.tryMove(SQUARE[(i/50) % SQUARE.length]);
+		}
+	}
+	
 	/**
 	 * Inventory should be empty.
 	 */
@@ -118,4 +204,21 @@ public class PlayerTests {
 		assertEquals(inventory.size(), 0);
 	}
 	
+	/**
+	 * A hit sent again by the server should not be taken
+	 * twice, even if the player's health has changed since.
+	 */
+	@Test
+	public void validServerHitTakenOnce() {
+		player.takeServerHit(85, 1);
+		assertEquals(85, player.getHealth());
+		assertTrue(player.isInvincible());
+		player.setHealth(95);
+		player.takeServerHit(85, 1);
+		assertEquals(95, player.getHealth());
+		player.takeServerHit(80, 2);
+		assertEquals(80, player.getHealth());
+		assertEquals(2, player.getLastServerHit());
+	}
+	
 }
@@ -38,11 +38,74 @@ public class RoomTests {
 		assertEquals(testingRoom.getNpcFromId(0), null);
 	}
 	
+	@Test
+	public void validItemFromIdReplaced() {
+		Item first = new Health("apple", new Point(0,0), 0, 3);
+		Item second = new Health("apple", new Point(5,5), 0, 3);
+		Item replacement = new Health("apple", new Point(0,0), 0, 4);
+		testingRoom.addItem(second, 5, 5);
+		testingRoom.addItem(first, 0, 0);
+		assertEquals(first, testingRoom.getItemFromId(3));
+		testingRoom.addItem(replacement, 0, 0);
+		assertEquals(second, testingRoom.getItemFromId(3));
+		assertEquals(replacement, testingRoom.getItemFromId(4));
+	}
+	
+	@Test
+	public void validTile() {
+		testingRoom.initialiseTiles();
+		assertEquals(new Point(3,7), testingRoom.getTile(3, 7).getRoomCoords());
+		assertEquals(null, testingRoom.getTile(10, 0));
+		assertEquals(null, testingRoom.getTile(0, -1));
+	}
+	
 	@Test
 	public void notValidCalcTile() {
 		assertEquals(null,testingRoom.calcTile(new Point(0,0)));
 	}
 	
+	@Test
+	public void validCalcTile() {
+		testingRoom.initialiseTiles();
+		//every point in and around the room should be on the same tile
+		//as checking every tile would find
+		for (int x = 150; x < 900; ++x) {
+			for (int y = 150; y < 520; ++y) {
+				Point point = new Point(x, y);
+				Tile expected = null;
+				for (int row = 0; row < 10 && expected == null; ++row) {
+					for (int col = 0; col < 10 && expected == null; ++col) {
+						if (testingRoom.getTiles()[row][col].isOn(point)) {
+							expected = testingRoom.getTiles()[row][col];
+						}
+					}
+				}
+				assertEquals(expected, testingRoom.calcTile(point));
+			}
+		}
+	}
+	
+	@Test
+	public void validOccupancy() {
+		testingRoom.initialiseTiles();
+		Item apple = new Health("apple", new Point(2,2), 0, 0);
+		testingRoom.addItem(apple, 2, 2);
+		NPC first = new EnemyWalker("bats", 0, new Point(2,2), 0, 0, testingRoom);
+		NPC second = new EnemyWalker("bats", 1, new Point(5,5), 0, 0, testingRoom);
+		testingRoom.addNpc(first);
+		testingRoom.addNpc(second);
+		//walkers leaving a cell shouldn't clear the item or other walkers in it
+		testingRoom.moveNpc(first, 5, 5);
+		assertEquals(Room.OCCUPANT_ITEM, testingRoom.getOccupantKind(2, 2));
+		assertTrue(testingRoom.getTile(2, 2).isOccupied());
+		testingRoom.moveNpc(second, 6, 6);
+		assertEquals(Room.OCCUPANT_NPC, testingRoom.getOccupantKind(5, 5));
+		assertEquals(first, testingRoom.getTileOccupant(testingRoom.getTile(5, 5)));
+		testingRoom.moveNpc(first, null);
+		assertFalse(testingRoom.isOccupied(5, 5));
+		assertEquals(second, testingRoom.getTileOccupant(testingRoom.getTile(6, 6)));
+	}
+	
 	@Test
 	public void notValidInRoom() {
 		assertFalse(testingRoom.currTileIsInRoom(null));
@@ -50,6 +113,6 @@ public class RoomTests {
 	
 	@Test
 	public void validInRoom() {
-		assertTrue(testingRoom.currTileIsInRoom(new Tile(new Point(0,0), testingRoom, true)));
+		assertTrue(testingRoom.currTileIsInRoom(new Tile(new Point(0,0), testingRoom)));
 	}
 }
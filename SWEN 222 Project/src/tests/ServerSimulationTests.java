@@ -0,0 +1,143 @@
+package tests;
+
+import static org.junit.Assert.*;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import clientServer.ServerSimulation;
+import game.Board;
+import game.DestinysWild;
+import game.Player;
+import game.Room;
+import game.XMLParser;
+import game.npcs.EnemyWalker;
+import game.npcs.NPC;
+
+public class ServerSimulationTests {
+
+	@Test
+	public void validParallelMatchesOneWorker() {
+		assertEquals(simulate(boardWithPlayers(), 1, 100), simulate(boardWithPlayers(), 4, 100));
+	}
+
+	@Test
+	public void validPlayerDiesDuringParallelTick() {
+		Board board = boardWithPlayers();
+		EnemyWalker bat = null;
+		for (Room room : allRooms(board)) {
+			for (NPC npc : room.getNpcs()) {
+				if (bat == null && npc instanceof EnemyWalker
+						&& ((EnemyWalker) npc).getStrategy().equals("follow")) {
+					bat = (EnemyWalker) npc;
+				}
+			}
+		}
+		assertNotNull(bat);
+		//the only player in the bat's room stands on it, with one health left
+		Room batRoom = bat.getCurrentRoom();
+		Player dying = board.getPlayer("player" + batRoom.getId());
+		dying.setCoords(bat.getRealCoords().x, bat.getRealCoords().y);
+		dying.setCurrentTile(batRoom.calcTile(dying.getCoords()));
+		dying.setHealth(1);
+		Board sameBoard = boardWithPlayers();
+		Player sameDying = sameBoard.getPlayer("player" + batRoom.getId());
+		sameDying.setCoords(bat.getRealCoords().x, bat.getRealCoords().y);
+		sameDying.setCurrentTile(sameBoard.getRoomFromId(batRoom.getId()).calcTile(sameDying.getCoords()));
+		sameDying.setHealth(1);
+
+		String parallel = simulate(board, 4, 1);
+		assertEquals(board.getRoomFromCoords(2, 2), dying.getCurrentRoom());
+		assertEquals(100, dying.getHealth());
+		assertEquals(simulate(sameBoard, 1, 1), parallel);
+	}
+
+	@Test
+	public void validEnemyOnlyHitsPlayersInItsRoom() {
+		Board board = XMLParser.initialiseBoard("data/board.xml");
+		DestinysWild.setBoard(board);
+		try {
+			EnemyWalker walker = null;
+			for (Room room : allRooms(board)) {
+				for (NPC npc : room.getNpcs()) {
+					if (walker == null && npc instanceof EnemyWalker) {
+						walker = (EnemyWalker) npc;
+					}
+				}
+			}
+			assertNotNull(walker);
+			walker.tryMove();
+			Room otherRoom = board.getRoomFromId(walker.getCurrentRoom().getId() == 0 ? 1 : 0);
+			Player inRoom = new Player("inRoom", new Point(walker.getRealCoords()), walker.getCurrentRoom());
+			Player elsewhere = new Player("elsewhere", new Point(walker.getRealCoords()), otherRoom);
+			board.addPlayers(inRoom);
+			board.addPlayers(elsewhere);
+			int health = elsewhere.getHealth();
+			walker.checkHitPlayer();
+			assertTrue(inRoom.getHealth() < health);
+			assertEquals(health, elsewhere.getHealth());
+		} finally {
+			DestinysWild.setBoard(null);
+		}
+	}
+
+	/**
+	 * Ticks every room of a board on a pool, applying the hits after each tick
+	 * @return where everything is afterwards
+	 */
+	private static String simulate(Board board, int workers, int ticks){
+		ForkJoinPool pool = new ForkJoinPool(workers);
+		DestinysWild.setBoard(board);
+		try {
+			List<Room> rooms = allRooms(board);
+			for (int tick = 0; tick < ticks; tick++) {
+				for (Room.Hit hit : ServerSimulation.moveEnemies(rooms, pool)) {
+					ServerSimulation.applyHit(hit);
+				}
+			}
+			return describe(board);
+		} finally {
+			pool.shutdown();
+			DestinysWild.setBoard(null);
+		}
+	}
+
+	/**
+	 * Loads the board, and puts a player in the middle of every room
+	 */
+	private static Board boardWithPlayers(){
+		Board board = XMLParser.initialiseBoard("data/board.xml");
+		for (Room room : allRooms(board)) {
+			board.addPlayers(new Player("player" + room.getId(), new Point(500, 300), room));
+		}
+		return board;
+	}
+
+	private static List<Room> allRooms(Board board){
+		List<Room> rooms = new ArrayList<Room>();
+		for (Room[] row : board.getBoard()) {
+			for (Room room : row) {
+				rooms.add(room);
+			}
+		}
+		return rooms;
+	}
+
+	/**
+	 * Lists where every enemy is, and where every player is and how healthy they are
+	 */
+	private static String describe(Board board){
+		StringBuilder description = new StringBuilder();
+		for (Room room : allRooms(board)) {
+			for (NPC npc : room.getNpcs()) {
+				description.append(room.getId()).append(' ').append(npc.getId()).append(' ')
+						.append(npc.getRealCoords()).append('\n');
+			}
+			Player player = board.getPlayer("player" + room.getId());
+			description.append(player.getCurrentRoom().getId()).append(' ').append(player.getCoords())
+					.append(' ').append(player.getHealth()).append('\n');
+		}
+		return description.toString();
+	}
+}
@@ -0,0 +1,126 @@
+package tests;
+
+import static org.junit.Assert.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import game.TickScheduler;
+
+public class TickSchedulerTests {
+
+	@Test
+	public void validTickRate() throws InterruptedException {
+		TickScheduler scheduler = new TickScheduler("test");
+		try {
+			TickScheduler.Ticker ticker = scheduler.schedule("count", 100, counter());
+			Thread.sleep(500);
+			long ticks = ticker.getTicks();
+			assertTrue("ran " + ticks + " ticks", ticks >= 40 && ticks <= 55);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void validMultipleRates() throws InterruptedException {
+		TickScheduler scheduler = new TickScheduler("test");
+		try {
+			TickScheduler.Ticker fast = scheduler.schedule("fast", 100, counter());
+			TickScheduler.Ticker slow = scheduler.schedule("slow", 10, counter());
+			Thread.sleep(500);
+			assertTrue("slow ran " + slow.getTicks() + " ticks", slow.getTicks() >= 4 && slow.getTicks() <= 6);
+			assertTrue("fast ran " + fast.getTicks() + " ticks", fast.getTicks() > slow.getTicks() * 5);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void validCatchUpIsCapped() throws InterruptedException {
+		TickScheduler scheduler = new TickScheduler("test");
+		try {
+			final AtomicInteger count = new AtomicInteger();
+			//the first tick takes as long as 20 ticks should
+			TickScheduler.Ticker ticker = scheduler.schedule("stall", 100, 2, new Runnable() {
+				public void run() {
+					if (count.incrementAndGet() == 1) {
+						sleep(200);
+					}
+				}
+			});
+			Thread.sleep(300);
+			assertEquals(1, ticker.getOverruns());
+			assertTrue("skipped " + ticker.getSkippedTicks() + " ticks", ticker.getSkippedTicks() >= 15);
+			assertTrue(ticker.getMaxTickNanos() >= 200000000L);
+			assertTrue(ticker.getMaxDriftNanos() >= 10000000L);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void validCancel() throws InterruptedException {
+		TickScheduler scheduler = new TickScheduler("test");
+		try {
+			TickScheduler.Ticker ticker = scheduler.schedule("count", 100, counter());
+			Thread.sleep(100);
+			ticker.cancel();
+			Thread.sleep(20);
+			long ticks = ticker.getTicks();
+			Thread.sleep(100);
+			assertEquals(ticks, ticker.getTicks());
+			assertTrue(scheduler.getTickers().isEmpty());
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void validFailingTaskIsCancelledAlone() throws InterruptedException {
+		TickScheduler scheduler = new TickScheduler("test");
+		try {
+			TickScheduler.Ticker failing = scheduler.schedule("fail", 100, new Runnable() {
+				public void run() {
+					throw new Error("Invalid Direction");
+				}
+			});
+			TickScheduler.Ticker count = scheduler.schedule("count", 100, counter());
+			Thread.sleep(200);
+			assertTrue(failing.isCancelled());
+			assertEquals(1, failing.getTicks());
+			long ticks = count.getTicks();
+			Thread.sleep(100);
+			assertTrue("ran " + count.getTicks() + " ticks", count.getTicks() > ticks);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void notValidTickRate() {
+		TickScheduler scheduler = new TickScheduler("test");
+		try {
+			scheduler.schedule("none", 0, counter());
+			fail();
+		} catch (IllegalArgumentException e) {
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	private static Runnable counter(){
+		return new Runnable() {
+			private int count = 0;
+			public void run() {
+				count++;
+			}
+		};
+	}
+
+	private static void sleep(long millis){
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
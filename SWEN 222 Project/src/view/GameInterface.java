@@ -9,6 +9,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
+import java.util.HashMap;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import javax.swing.BorderFactory;
@@ -22,12 +23,12 @@ import javax.swing.border.Border;
 import javax.swing.border.EmptyBorder;
 import clientServer.packets.MovePacket;
 import renderer.GameImagePanel;
+import renderer.RenderThread;
 import game.Board;
 import game.DestinysWild;
 import game.Player;
 import game.items.Health;
 import game.items.Item;
-import game.items.Tool;
 
 public class GameInterface{
 	private static final int MAX_FOOD = 5;
@@ -42,6 +43,9 @@ public class GameInterface{
 	private GameImagePanel gamePanel;
 	private CountDownLatch latch;
 	private String orientation;
+	private int drawnInventoryVersion = -1; //version of the inventory when it was last drawn
+	private final HashMap<String, ImageIcon> slotIcons = new HashMap<String, ImageIcon>(); //slot icons by item and slot type
+	private final ImageIcon[] keyIcons = new ImageIcon[6]; //key slot icons by number of key items
 
 	public GameInterface(Player player, DestinysWild game, Board board, CountDownLatch latch) {
 		this.latch = latch;
@@ -53,6 +57,10 @@ public class GameInterface{
 		initialiseInterface();
 		updateUI();
 		frame.setVisible(true);
+		if (RenderThread.isEnabled()) {
+			//draw the game on its own thread instead of on the Swing timer
+			gamePanel.startActiveRendering(RenderThread.getConfiguredFrameCap());
+		}
 		latch.countDown();
 	}
 
@@ -148,12 +156,29 @@ public class GameInterface{
 
 	/**
 	 * This method should be called whenever the game
-	 * state changes. It should update the user interface,
-	 * drawing in all of the player's items onto the
-	 * inventory panel. It should then redraw the interface.
+	 * state changes. If the player's inventory has changed
+	 * since it was last drawn, all of the player's items
+	 * should be drawn onto the inventory panel. It should
+	 * then redraw the interface.
 	 */
 	public void updateUI() {
-		// draw the inventory
+		// draw the inventory, only if it has changed
+		int inventoryVersion = player.getInventoryVersion();
+		if (inventoryVersion != drawnInventoryVersion) {
+			drawnInventoryVersion = inventoryVersion;
+			drawInventory();
+		}
+
+		//the repaint method suggests to the board to repaint the frame
+		//this may update the minimap if changes have been made to it
+		frame.repaint();
+	}
+
+	/**
+	 * This method should draw all of the player's items
+	 * onto the inventory panel.
+	 */
+	private void drawInventory() {
 		ImagePanel inventoryPanel = (ImagePanel) frame.getContentPane().getComponent(0);
 
 		// first lets draw the food
@@ -162,15 +187,17 @@ public class GameInterface{
 			//extract the foodLabel from the inventoryPanel
 			JLabel foodLabel = (JLabel) inventoryPanel.getComponent(i);
 			//set the labels image to be the food
-			drawBackgroundImage(foodLabel, "itemBox", i);
+			String imageName = getName(i);
+			foodLabel.setIcon(getSlotIcon(imageName, "itemBox"));
+			//update the panel description (hover over text)
+			foodLabel.setToolTipText(imageName+" - press "+(i+1)+" to select.");
 		}
 
 		//we should make sure that any slots that do not contain food
 		//do not display food, so we reset the image back to an empty slot
 		for (int i = numFood; i < 5; ++i) {
 			JLabel toolLabel = (JLabel) inventoryPanel.getComponent(i);
-			Image slotBackgroundImage = MenuInterface.loadImage("itemBox.png");
-			toolLabel.setIcon(new ImageIcon(slotBackgroundImage));
+			toolLabel.setIcon(getSlotIcon(null, "itemBox"));
 		}
 
 		//now we can draw in weapons
@@ -179,100 +206,85 @@ public class GameInterface{
 			//extract the tool label from the inventory label
 			JLabel toolLabel = (JLabel) inventoryPanel.getComponent(i + MAX_FOOD);
 			//set the labels image to be a tool
-			drawBackgroundImage(toolLabel, "toolBox", i + MAX_FOOD);
+			toolLabel.setIcon(getSlotIcon(getName(i + MAX_FOOD), "toolBox"));
 		}
 
 		JLabel keyLabel = (JLabel) inventoryPanel.getComponent(MAX_FOOD + MAX_TOOLS);
-		Image keySlotBackgroundImage = MenuInterface.loadImage("keyBox.png");
-
-		int numKeyItems = player.numKeyItems();
-		keyLabel.setIcon(new ImageIcon(keySlotBackgroundImage));
-		if (numKeyItems == 5) {
-			//player has all pieces of the key, and the key itself
-			//only the key should be drawn
-			drawBackgroundImage(keyLabel, "keyBox", numKeyItems+MAX_FOOD+MAX_TOOLS);
-		}
-		//player has some key pieces
-		else if (numKeyItems > 0) {
-			for (int i = 0; i < numKeyItems; ++i) {
-				//need to draw each key piece individually
-				drawBackgroundImage(keyLabel, "keyBox", i+MAX_FOOD+MAX_TOOLS);
-			}
-		}
-
-		//the interface should be updated
-		frame.revalidate();
-		//the repaint method suggests to the board to repaint the frame
-		//this may update the minimap if changes have been made to it
-		frame.repaint();
+		keyLabel.setIcon(getKeyIcon(player.numKeyItems()));
 	}
 
 	/**
-	 * This method should be called when the image of
-	 * an inventory slot should be redrawn with an
-	 * item's image.
-	 * @param inventoryLabel label that new image
-	 * 		is being drawn onto
-	 * @param type of inventory item
-	 * @param index of slot within the inventoryLabel
-	 * 		to draw on latch
+	 * This method should return the icon for an inventory
+	 * slot holding an item. Each icon is only put together
+	 * the first time it is needed.
+	 * @param imageName name of the item's image, or null
+	 * 		for an empty slot
+	 * @param type of inventory slot, "itemBox" or "toolBox"
+	 * @return icon of the item with the slot border over it
 	 */
-	private void drawBackgroundImage(JLabel inventoryLabel, String type, int index) {
-		//firstly, we set the background image to be the image in question
-		Image itemImage = null;
-
-		if (type.equals("keyBox")) {
-			//first of all, we want to extract the current background image
-			Image currentBackgroundImage = ((ImageIcon) inventoryLabel.getIcon()).getImage();
-
-			//get graphics from background to draw with
-			Graphics g = currentBackgroundImage.getGraphics();
-
-			//depending on the number of key pieces the player has picked
-			//up, different parts of the key should be drawn
-			BufferedImage keyImage = (BufferedImage) MenuInterface.loadImage("keyTest.png");
-			if (index == 11) {
-				//draw piece 1
-				itemImage = keyImage.getSubimage(0, 24, 27, 40);
-				g.drawImage(itemImage, 7, 1, null);
-			} else if (index == 12) {
-				//draw piece 2
-				itemImage = keyImage.getSubimage(27, 30, 15, 35);
-				g.drawImage(itemImage, 60, 15, null);
-			} else if (index == 13) {
-				//draw piece 3
-				itemImage = keyImage.getSubimage(39, 0, 15, 65);
-				g.drawImage(itemImage, 20, 40, null);
-			} else if (index == 14) {
-				//draw piece 4
-				itemImage = keyImage.getSubimage(53, 0, 27, 65);
-				g.drawImage(itemImage, 60, 55, null);
+	private ImageIcon getSlotIcon(String imageName, String type) {
+		String key = imageName + "/" + type;
+		ImageIcon icon = slotIcons.get(key);
+		if (icon == null) {
+			Image slotBackgroundImage = MenuInterface.loadImage(type+".png");
+			if (imageName == null) {
+				icon = new ImageIcon(slotBackgroundImage);
 			} else {
-				//draw entire key
-				g.drawImage(keyImage, 8, 18, null);
+				//draw the border over the top of the image of the item
+				BufferedImage slotImage = MenuInterface.copyImage(imageName+".png");
+				Graphics g = slotImage.getGraphics();
+				g.drawImage(slotBackgroundImage, 0, 0, null, null);
+				g.dispose();
+				icon = new ImageIcon(slotImage);
 			}
-
-			//update background image
-			inventoryLabel.setIcon(new ImageIcon(currentBackgroundImage));
+			slotIcons.put(key, icon);
 		}
-		else {
-			//food or tool slot
-			String imageName = getName(index);
-			itemImage = MenuInterface.loadImage(imageName+".png");
-			inventoryLabel.setIcon(new ImageIcon(itemImage));
+		return icon;
+	}
 
-			//now we will draw the border over the top of the image of the tool
-			Image slotBackgroundImage = MenuInterface.loadImage(type+".png");
-			//get graphics from image to draw with
-			Graphics g = itemImage.getGraphics();
-			g.drawImage(slotBackgroundImage, 0, 0, null, null);
+	/**
+	 * This method should return the icon for the key slot.
+	 * Each icon is only put together the first time it is needed.
+	 * @param numKeyItems number of key items the player has
+	 * @return icon of the key slot with the player's key pieces drawn on
+	 */
+	private ImageIcon getKeyIcon(int numKeyItems) {
+		numKeyItems = Math.min(numKeyItems, 5);
+		if (keyIcons[numKeyItems] != null) {
+			return keyIcons[numKeyItems];
+		}
+		//the key pieces are drawn on a copy, so the shared image isn't changed
+		BufferedImage keySlotImage = MenuInterface.copyImage("keyBox.png");
+		Graphics g = keySlotImage.getGraphics();
 
-			//update the panel description (hover over text)
-			if (type.equals("itemBox")) {
-				//1st - 5th slot
-				inventoryLabel.setToolTipText(imageName+" - press "+(index+1)+" to select.");
-			}
+		//depending on the number of key pieces the player has picked
+		//up, different parts of the key should be drawn
+		BufferedImage keyImage = (BufferedImage) MenuInterface.loadImage("keyTest.png");
+		if (numKeyItems == 5) {
+			//player has all pieces of the key, and the key itself
+			//only the entire key should be drawn
+			g.drawImage(keyImage, 8, 18, null);
+		}
+		if (numKeyItems > 0 && numKeyItems < 5) {
+			//draw piece 1
+			g.drawImage(keyImage.getSubimage(0, 24, 27, 40), 7, 1, null);
+		}
+		if (numKeyItems > 1 && numKeyItems < 5) {
+			//draw piece 2
+			g.drawImage(keyImage.getSubimage(27, 30, 15, 35), 60, 15, null);
 		}
+		if (numKeyItems > 2 && numKeyItems < 5) {
+			//draw piece 3
+			g.drawImage(keyImage.getSubimage(39, 0, 15, 65), 20, 40, null);
+		}
+		if (numKeyItems > 3 && numKeyItems < 5) {
+			//draw piece 4
+			g.drawImage(keyImage.getSubimage(53, 0, 27, 65), 60, 55, null);
+		}
+		g.dispose();
+
+		keyIcons[numKeyItems] = new ImageIcon(keySlotImage);
+		return keyIcons[numKeyItems];
 	}
 
 	/**
@@ -293,10 +305,10 @@ public class GameInterface{
 
 		if (index < 5) {
 			//health
-			String healthItemName = player.getInventory().get(index).getType();
+			String healthItemName = player.getHealthItem(index).getType();
 			return healthItemName + "Icon";
 		} else {
-			String toolItemName = ((Tool) player.getInventory().get(index - MAX_FOOD + player.numHealthItems())).getType();
+			String toolItemName = player.getToolItem(index - MAX_FOOD).getType();
 			return toolItemName + "Icon";
 		}
 	}
@@ -472,6 +484,10 @@ public class GameInterface{
 		case KeyEvent.VK_RIGHT:
 			setNextOrientation(CYCLE_RIGHT);
 			break;
+		case KeyEvent.VK_F3:
+			//show or hide the frame timings
+			gamePanel.getProfiler().toggleOverlay();
+			break;
 		}
 	}
 
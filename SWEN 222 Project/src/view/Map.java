@@ -2,12 +2,12 @@ package view;
 
 import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Set;
 import javax.swing.JComponent;
 import game.Board;
@@ -27,8 +27,17 @@ import game.obstacles.Obstacle;
 public class Map extends JComponent {
 	private Player player;
 	private Image mapImage;
+	private int[] mapPixels; //the pixels of mapImage, written to directly
+	private Room[][] drawnRooms; //the room drawn in each square of the map
+	private int[][] drawnVersions; //the version of each room when it was drawn
 	private Board board;
 	private static final int BOARD_LENGTH = 5;
+	private static final int ROOM_PIXELS = 50; //width and height of a room on the map
+	private static final int MAP_PIXELS = BOARD_LENGTH * ROOM_PIXELS;
+
+	private static final int STONE = 0xFF8F8F8F; //colour of stone obstacles and spikes
+	private static final int FLOOR = 0xFFACD373; //colour of the forest floor
+	private static final int WALL = 0xFF006400; //colour of the walls
 
 	public Map(Player player, Board board) {
 		this.player = player;
@@ -47,8 +56,11 @@ public class Map extends JComponent {
 	 */
 	private void initialiseMapImage() {
 		//create image that will be the background
-		mapImage = new BufferedImage(250, 250, BufferedImage.TYPE_INT_ARGB);
-		Graphics2D graphics = ((BufferedImage) mapImage).createGraphics();
+		BufferedImage image = new BufferedImage(MAP_PIXELS, MAP_PIXELS, BufferedImage.TYPE_INT_ARGB);
+		mapPixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		mapImage = image;
+		drawnRooms = new Room[BOARD_LENGTH][BOARD_LENGTH];
+		drawnVersions = new int[BOARD_LENGTH][BOARD_LENGTH];
 
 		//read in the rooms from the board
 		Room[][] rooms = board.getBoard();
@@ -58,7 +70,51 @@ public class Map extends JComponent {
 				Room room = rooms[i][j];
 				//only draw rooms that have been initialised
 				if (room != null) {
-					initialiseRoomImage(graphics, room);
+					initialiseRoomImage(room, 0, 0, MAP_PIXELS, MAP_PIXELS);
+					drawnRooms[i][j] = room;
+					drawnVersions[i][j] = room.getVersion();
+				}
+			}
+		}
+	}
+
+	/**
+	 * This method should draw again any room whose obstacles or
+	 * NPCs have changed since it was last drawn onto the map image.
+	 */
+	private void updateChangedRooms() {
+		Room[][] rooms = board.getBoard();
+		for (int i = 0; i < BOARD_LENGTH; ++i) {
+			for (int j = 0; j < BOARD_LENGTH; ++j) {
+				Room room = rooms[i][j];
+				if (room != null && (room != drawnRooms[i][j] || room.getVersion() != drawnVersions[i][j])) {
+					redrawRoom(i, j);
+					drawnRooms[i][j] = room;
+					drawnVersions[i][j] = room.getVersion();
+				}
+			}
+		}
+	}
+
+	/**
+	 * This method should draw a single square of the map again.
+	 * The walls of the rooms above and to the left overlap the
+	 * edges of the square, so they are drawn again too, in the
+	 * same order as initialiseMapImage draws them.
+	 * @param row row of the room on the board
+	 * @param col column of the room on the board
+	 */
+	private void redrawRoom(int row, int col) {
+		int top = row * ROOM_PIXELS;
+		int left = col * ROOM_PIXELS;
+		for (int y = top; y < top + ROOM_PIXELS; ++y) {
+			Arrays.fill(mapPixels, y * MAP_PIXELS + left, y * MAP_PIXELS + left + ROOM_PIXELS, 0);
+		}
+		Room[][] rooms = board.getBoard();
+		for (int i = Math.max(0, row - 1); i <= row; ++i) {
+			for (int j = Math.max(0, col - 1); j <= col; ++j) {
+				if (rooms[i][j] != null) {
+					initialiseRoomImage(rooms[i][j], left, top, left + ROOM_PIXELS, top + ROOM_PIXELS);
 				}
 			}
 		}
@@ -66,58 +122,56 @@ public class Map extends JComponent {
 
 	/**
 	 * This method should draw to the map image a single room.
-	 * @param graphics
-	 * @param room
+	 * Nothing is drawn outside of the given area.
+	 * @param room the room to draw
+	 * @param minX left of the area that can be drawn on
+	 * @param minY top of the area that can be drawn on
+	 * @param maxX right of the area that can be drawn on, not included
+	 * @param maxY bottom of the area that can be drawn on, not included
 	 */
-	private void initialiseRoomImage(Graphics graphics, Room room) {
+	private void initialiseRoomImage(Room room, int minX, int minY, int maxX, int maxY) {
 		Point point = room.getBoardPos();
-		int xCoord = point.x * 50;
-		int yCoord = point.y * 50;
+		int xCoord = point.x * ROOM_PIXELS;
+		int yCoord = point.y * ROOM_PIXELS;
 
 		//draw in the background of the room first, including any obstacles
-		for (int i = xCoord; i < 50 + xCoord; ++i) {
-			for (int j = yCoord; j < 50 + yCoord; ++j) {
+		for (int i = xCoord; i < ROOM_PIXELS + xCoord; ++i) {
+			for (int j = yCoord; j < ROOM_PIXELS + yCoord; ++j) {
 				//check if there is an obstacle to draw
-				if (room.getObstacles()[(i-xCoord)/5][(j-yCoord)/5] != null) {
-					Obstacle obstacle = room.getObstacles()[(i-xCoord)/5][(j-yCoord)/5];
+				Obstacle obstacle = room.getObstacles()[(i-xCoord)/5][(j-yCoord)/5];
+				if (obstacle != null) {
 					//draw each obstacle differently
 					switch (obstacle.getType()) {
 					case "brokenblock":
-						graphics.setColor(new Color(143, 143, 143));
-						graphics.fillRect(j, i, 1, 1);
-						break;
 					case "brokenstone1":
-						graphics.setColor(new Color(143, 143, 143));
-						graphics.fillRect(j, i, 1, 1);
-						break;
 					case "stoneblock":
-						graphics.setColor(new Color(143, 143, 143));
-						graphics.fillRect(j, i, 1, 1);
-						break;
 					case "cobblestone":
-						graphics.setColor(new Color(143, 143, 143));
-						graphics.fillRect(j, i, 1, 1);
+						setPixel(j, i, STONE, minX, minY, maxX, maxY);
 						break;
 					}
 				} else {
 					//print out normal unoccupied square (forest floor)
-					graphics.setColor(new Color(172,211,115));
-					graphics.fillRect(j, i, 1, 1);
+					setPixel(j, i, FLOOR, minX, minY, maxX, maxY);
 				}
 			}
 		}
-		
+
 		//draw in all spikes on the minimap
 		for (NPC npc: room.getNpcs()) {
 			if (npc instanceof EnemyStill) {
-				graphics.setColor(new Color(143, 143, 143));
-				graphics.fillRect(yCoord+npc.getRoomCoords().y*5, xCoord+npc.getRoomCoords().x*5, 5, 5);
+				int spikeX = yCoord + npc.getRoomCoords().y*5;
+				int spikeY = xCoord + npc.getRoomCoords().x*5;
+				for (int i = spikeY; i < spikeY + 5; ++i) {
+					for (int j = spikeX; j < spikeX + 5; ++j) {
+						setPixel(j, i, STONE, minX, minY, maxX, maxY);
+					}
+				}
 			}
 		}
 
 		//draw in walls or doors in y direction
-		for (int j = xCoord; j <= xCoord + 50; j += 50) {
-			for (int i = yCoord; i <= yCoord + 50; ++i) {
+		for (int j = xCoord; j <= xCoord + ROOM_PIXELS; j += ROOM_PIXELS) {
+			for (int i = yCoord; i <= yCoord + ROOM_PIXELS; ++i) {
 				//check for north door
 				if (room.getNorth() != -1 && i >= (20 + yCoord) && i < (30 + yCoord)
 						&& j == xCoord) {
@@ -126,21 +180,20 @@ public class Map extends JComponent {
 				}
 				//check for south door
 				else if (room.getSouth() != -1 && i >= (20 + yCoord) && i < (30 + yCoord)
-						&& j == xCoord + 50) {
+						&& j == xCoord + ROOM_PIXELS) {
 					//if we are here, then a south door is present, so nothing will be
 					//drawn to show the gap in the wall
 				}
 				else {
 					//safe to draw the wall
-					graphics.setColor(new Color(0,100,0));
-					graphics.fillRect(i, j, 1, 1);
+					setPixel(i, j, WALL, minX, minY, maxX, maxY);
 				}
 			}
 		}
 
 		//draw in walls or doors in x direction
-		for (int i = xCoord; i <= xCoord + 50; ++i) {
-			for (int j = yCoord; j <= yCoord + 50; j += 50) {
+		for (int i = xCoord; i <= xCoord + ROOM_PIXELS; ++i) {
+			for (int j = yCoord; j <= yCoord + ROOM_PIXELS; j += ROOM_PIXELS) {
 				//check for west door
 				if (room.getWest() != -1 && i >= (20 + xCoord) && i < (30 + xCoord)
 						&& j == yCoord) {
@@ -149,28 +202,38 @@ public class Map extends JComponent {
 				}
 				//check for east door
 				else if (room.getEast() != -1 && i >= (20 + xCoord) && i < (30 + xCoord)
-						&& j == yCoord + 50) {
+						&& j == yCoord + ROOM_PIXELS) {
 					//if we are here, then a east door is present, so nothing will be
 					//drawn to show the gap in the wall
 				}
 				else {
 					//safe to draw the wall
-					graphics.setColor(new Color(0,100,0));
-					graphics.fillRect(j, i, 1, 1);
+					setPixel(j, i, WALL, minX, minY, maxX, maxY);
 				}
 			}
 		}
 	}
 
+	/**
+	 * This method should write a single pixel of the map image,
+	 * if it is inside the given area.
+	 */
+	private void setPixel(int x, int y, int colour, int minX, int minY, int maxX, int maxY) {
+		if (x >= minX && x < maxX && y >= minY && y < maxY) {
+			mapPixels[y * MAP_PIXELS + x] = colour;
+		}
+	}
+
 	@Override
 	protected void paintComponent(Graphics g) {
 		super.paintComponent(g);
 
 		//put up a black background so that rooms that aren't drawn
 		//are shown to be unexplored
-		//List<Room> rooms = player.getVisitedRooms();
-		List<Room> visitedRooms = player.getVisitedRooms();
+		int visitedMask = player.getVisitedMask();
 
+		//bring the image up to date with any obstacles that have changed
+		updateChangedRooms();
 		g.drawImage(mapImage, 0, 0, null, null);
 
 		boolean drawBlack = true; //just used for testing
@@ -179,15 +242,7 @@ public class Map extends JComponent {
 			for (int i = 0; i < BOARD_LENGTH; ++i) {
 				for (int j = 0; j < BOARD_LENGTH; ++j) {
 					//check if this room has been visited before
-					boolean visitedRoom = false;
-					for (Room room: visitedRooms) {
-						if (room.getBoardPos().equals(new Point(i,j))) {
-							//been here before
-							visitedRoom = true;
-						}
-					}
-
-					if (!visitedRoom) {
+					if ((visitedMask & Player.visitedBit(i, j)) == 0) {
 						//haven't visited this room
 						//so user shouldn't be able to see it
 						g.setColor(Color.DARK_GRAY);
@@ -220,7 +275,7 @@ public class Map extends JComponent {
 			}
 			//need to check if the players room is inside the current players visited rooms
 			//otherwise their dot will be floating in space
-			if ((this.player.getVisitedRooms().contains(currentRoom))) {
+			if (this.player.hasVisited(currentRoom)) {
 				g.fillRect(roomCoord.y * 50 + coord.y * 5, roomCoord.x * 50 + coord.x * 5, 5, 5);
 			}
 		}
@@ -237,35 +292,34 @@ public class Map extends JComponent {
 	 * @param j y coordinate on the board
 	 */
 	private void drawDoorGaps(Graphics g, int i, int j) {
-		List<Room> visitedRooms = player.getVisitedRooms();
 		Room room = board.getBoard()[i][j];
 		//set colour to default green
 		g.setColor(new Color(172,211,115));
 
 		if (room.getNorth() != -1 && i > 0) {
 			//there is a door to the north
-			if (visitedRooms.contains(board.getBoard()[i-1][j])) {
+			if (player.hasVisited(i-1, j)) {
 				//we've been in this room to the north
 				g.fillRect(j*50+20, i*50, 10, 1);
 			}
 		}
 		if (room.getEast() != -1 && j < BOARD_LENGTH - 1) {
 			//there is a door to the east
-			if (visitedRooms.contains(board.getBoard()[i][j+1])) {
+			if (player.hasVisited(i, j+1)) {
 				//we've been in this room to the east
 				g.fillRect((j+1)*50, i*50+20, 1, 10);
 			}
 		}
 		if (room.getSouth() != -1 && i < BOARD_LENGTH - 1) {
 			//there is a door to the south
-			if (visitedRooms.contains(board.getBoard()[i+1][j])) {
+			if (player.hasVisited(i+1, j)) {
 				//we've been in this room to the south
 				g.fillRect(j*50+20, (i+1)*50, 10, 1);
 			}
 		}
 		if (room.getWest() != -1 && j > 0) {
 			//there is a door to the west
-			if (visitedRooms.contains(board.getBoard()[i][j-1])) {
+			if (player.hasVisited(i, j-1)) {
 				//we've been in this room to the west
 				g.fillRect(j*50, i*50+20, 1, 10);
 			}
@@ -7,9 +7,8 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.IOException;
-import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
@@ -17,12 +16,16 @@ import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
 import javax.swing.border.Border;
 import game.DestinysWild;
+import renderer.AssetWarmup;
+import renderer.SpriteCache;
 
-public class MenuInterface {
+public class MenuInterface implements AssetWarmup.Listener {
 	private JFrame frame;
-	private static final String IMAGE_PATH = "data/images/";
+	private JProgressBar loadingBar;
 	private DestinysWild game;
 
 	public MenuInterface(DestinysWild game) {
@@ -126,6 +129,13 @@ public class MenuInterface {
 		toggleMusicButton.setBounds(925, 675, 150, 40);
 		frame.getContentPane().add(toggleMusicButton);
 
+		//Loading bar, shown while the game's images and rooms are warmed up
+		loadingBar = new JProgressBar();
+		loadingBar.setStringPainted(true);
+		loadingBar.setString("Loading...");
+		loadingBar.setBounds(400, 685, 250, 20);
+		frame.getContentPane().add(loadingBar);
+
 		frame.getContentPane().requestFocus();
 		frame.getContentPane().setLayout(null);
 		frame.getContentPane().add(menuPanel);
@@ -170,6 +180,25 @@ public class MenuInterface {
 		});
 	}
 
+	/**
+	 * This method should show how far the warm up has got on the
+	 * loading bar, and hide the bar once it has finished. It can be
+	 * called from any thread.
+	 * @param done steps finished so far
+	 * @param total steps in the warm up
+	 */
+	@Override
+	public void warmupProgress(final int done, final int total) {
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				loadingBar.setMaximum(total);
+				loadingBar.setValue(done);
+				loadingBar.setString("Loading " + (100*done/total) + "%");
+				loadingBar.setVisible(done < total);
+			}
+		});
+	}
+
 	private void newGame() {
 		String name = JOptionPane.showInputDialog("Enter your name adventurer!");
 		if (name != null) {
@@ -208,20 +237,31 @@ public class MenuInterface {
 
 	/**
 	 * This method should load an image in from a filename.
+	 * Images are shared through the SpriteCache, so they are only
+	 * read from disk once, and the returned image should not be
+	 * drawn on. Use copyImage to get an image that can be drawn on.
 	 * @param filename
-	 * @return
+	 * @return the image
 	 */
 	public static Image loadImage(String filename) {
-		// using the URL means the image loads when stored
-		// in a jar or expanded into individual files.
-		try {
-			Image img = ImageIO.read(new File(IMAGE_PATH + filename));
-			return img;
-		} catch (IOException e) {
+		if (!SpriteCache.contains(filename)) {
 			// we've encountered an error loading the image. There's not much we
 			// can actually do at this point, except to abort the game.
 			throw new RuntimeException("Unable to load image: " + filename);
 		}
+		return SpriteCache.getImage(filename);
+	}
+
+	/**
+	 * This method should return a copy of an image, which
+	 * can be drawn on without changing the shared image.
+	 * @param filename
+	 * @return a copy of the image
+	 */
+	public static BufferedImage copyImage(String filename) {
+		//make sure the image exists first
+		loadImage(filename);
+		return SpriteCache.getCopy(filename);
 	}
 
 }
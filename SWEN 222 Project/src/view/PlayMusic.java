@@ -5,13 +5,15 @@ import java.io.FileInputStream;
 import javazoom.jl.decoder.JavaLayerException;
 import javazoom.jl.player.Player;
 
+import game.TickScheduler;
+
 public class PlayMusic {
 	private static final String MEDIA_PATH = "data/music/";
 	private static FileInputStream musicInputStream;
 	private static Player playMP3;
 	private static boolean isPlaying;
 	private static boolean isFinished = false;
-	private static boolean running = true;
+	private static TickScheduler.Ticker ticker;
 
 	public static synchronized void playSound(final String fileName) {
 		new Thread(new Runnable() {
@@ -66,39 +68,24 @@ public class PlayMusic {
 		
 	}
 
-	public static void loop() throws JavaLayerException {
-		long lastTime = System.nanoTime();
-		double nsPerTick = 1000000000D / 30D;
-		int ticks = 0;
-		double diff = 0;
-		long lastTimer = System.currentTimeMillis();
-		while (running) {
-			// if(!paused){
-			long now = System.nanoTime();
-			diff += ((now - lastTime) / nsPerTick);
-			lastTime = now;
-			while (diff >= 1) {
-				ticks++;
+	/**
+	 * Starts checking 30 times a second whether the song has finished, so that it can be
+	 * played again. The check runs on the shared TickScheduler, and is only started once.
+	 */
+	public static synchronized void loop() {
+		if (ticker != null) {
+			return;
+		}
+		ticker = TickScheduler.getShared().schedule("music", 30, new Runnable() {
+			public void run() {
 				try {
 					tick();
 				} catch (Exception e) {
 					// TODO Auto-generated catch block
 					e.printStackTrace();
 				}
-				diff--;
 			}
-			try {
-				Thread.sleep(2);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-			if (System.currentTimeMillis() - lastTimer >= 1000) {
-				lastTimer += 1000;
-				// System.out.println("Daytime changed");
-				// System.out.println("Ticks: " + ticks);
-				ticks = 0;
-			}
-		}
+		});
 	}
 
 	public static void toggleMusic() {
@@ -2,6 +2,7 @@ package view;
 
 import java.awt.Graphics;
 import java.awt.Image;
+import java.awt.image.BufferedImage;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
@@ -29,6 +30,8 @@ public class ShopInterface {
 	private JFrame frame;
 	private Player player;
 	private Tool[] tools;
+	//icons of the tools in their slots, only put together the first time the shop is opened
+	private static ImageIcon[] slotIcons;
 	
 	/**
 	 * Create a new instance of ShopInterface.
@@ -60,15 +63,7 @@ public class ShopInterface {
 		for (int i = 0; i < 2; ++i) {
 			for (int j = 0; j < 3; ++j) {
 				
-				//set in the item box image in the background, then we drawn the
-				//individual tool on top
-				Image itemBoxImage = MenuInterface.loadImage("itemBox.png");
-				Graphics graphics = itemBoxImage.getGraphics();
-				//draw tool on top of the background image
-				
-				Image toolImage = MenuInterface.loadImage(getToolImageName(i*3+j));
-				graphics.drawImage(toolImage, 12, 12, null);
-				JLabel shopSlot = new JLabel(new ImageIcon(itemBoxImage));		
+				JLabel shopSlot = new JLabel(getSlotIcon(i*3+j));
 				shopSlot.setBounds(36+88*j, 20+115*i, 78, 78);
 				frame.getContentPane().add(shopSlot);
 				
@@ -103,6 +98,33 @@ public class ShopInterface {
 		frame.setVisible(true);
 	}
 	
+	/**
+	 * This method should return the icon of a tool in its shop slot.
+	 * The icons are only put together the first time the shop is
+	 * opened, and are shared by every shop after that.
+	 * @param index of tool that's icon should be returned
+	 * @return icon of the tool drawn on the item box
+	 */
+	private ImageIcon getSlotIcon(int index) {
+		if (slotIcons == null) {
+			ImageIcon[] icons = new ImageIcon[6];
+			for (int i = 0; i < icons.length; ++i) {
+				//set in the item box image in the background, then we drawn the
+				//individual tool on top. The item box is copied, so that the
+				//shared image isn't drawn on
+				BufferedImage itemBoxImage = MenuInterface.copyImage("itemBox.png");
+				Graphics graphics = itemBoxImage.getGraphics();
+				//draw tool on top of the background image
+				Image toolImage = MenuInterface.loadImage(getToolImageName(i));
+				graphics.drawImage(toolImage, 12, 12, null);
+				graphics.dispose();
+				icons[i] = new ImageIcon(itemBoxImage);
+			}
+			slotIcons = icons;
+		}
+		return slotIcons[index];
+	}
+
 	/**
 	 * This method should return a string containing
 	 * the name of the image that corresponds to a
@@ -134,7 +156,7 @@ public class ShopInterface {
 		//capitalise first letter of tool's name
 		String toolName = tool.getType().substring(0, 1).toUpperCase() + tool.getType().substring(1);
 		
-		if (player.getInventory().contains(tool)) {
+		if (tool.equals(player.getToolItem(tool.getType()))) {
 			JOptionPane.showMessageDialog(frame, "You've already bought the "+toolName+".");
 		}
 		else {